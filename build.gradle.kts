@@ -1,6 +1,7 @@
 plugins {
     id("java-library")
     id("com.vanniktech.maven.publish") version "0.36.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "dev.musca"
@@ -19,6 +20,20 @@ repositories {
 dependencies {
 	api("dev.musca:fluff-core:2.0.0")
     api("dev.musca:fluff-http:2.0.0")
+
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+jmh {
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
 }
 
 tasks.withType<Jar> {
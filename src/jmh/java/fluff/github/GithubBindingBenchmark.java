@@ -0,0 +1,74 @@
+package fluff.github;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import fluff.http.body.HTTPBody;
+import fluff.http.body.HTTPBodyParser;
+import fluff.json.JSONArray;
+import fluff.json.JSONObject;
+
+/**
+ * Compares binding a full {@code /users/{user}/repos} page through the JSON tree against the streaming binder,
+ * without any network involved.
+ * <p>
+ * Run with {@code ./gradlew jmh} and {@code -prof gc} to compare the allocation rate as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GithubBindingBenchmark {
+
+    @Param({ "30", "100" })
+    public int repos;
+
+    private Github gh;
+    private String page;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setup() {
+        gh = new Github();
+        page = new GithubFixtures(Github.API.toString(), Github.RAW.toString()).repositories(GithubStubServer.OWNER, 0, repos);
+        pageBytes = page.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<GithubRepository> tree() {
+        JSONArray json = HTTPBody.of(page).get(HTTPBodyParser.JSON_ARRAY);
+        List<GithubRepository> list = new ArrayList<>(json.size());
+        for (int i = 0; i < json.size(); i++) {
+            list.add(repository(json.getObject(i)));
+        }
+        return list;
+    }
+
+    private GithubRepository repository(JSONObject json) {
+        return new GithubRepository(gh,
+                json.getObject("owner").getString("login"),
+                json.getString("name"),
+                json.getLong("id"),
+                json.getString("full_name"),
+                json.getString("description"),
+                json.getString("homepage"),
+                json.getString("default_branch"),
+                json.getBoolean("archived"));
+    }
+
+    @Benchmark
+    public List<GithubRepository> streaming() {
+        return GithubBinder.repository(gh).readArray(new ByteArrayInputStream(pageBytes));
+    }
+}
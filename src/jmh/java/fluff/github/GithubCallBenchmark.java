@@ -0,0 +1,63 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the latency of single lookups against the stub server, covering request construction,
+ * the transport and binding of the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GithubCallBenchmark {
+
+    @Param({ "0", "20" })
+    public int latencyMillis;
+
+    private GithubStubServer server;
+    private Github gh;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new GithubStubServer(1, 1, 30, 1024, Duration.ofMillis(latencyMillis));
+        gh = server.client();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public GithubUser user() {
+        return gh.user(GithubStubServer.OWNER);
+    }
+
+    @Benchmark
+    public GithubRepository repository() {
+        return gh.repository(GithubStubServer.OWNER, "repo-0");
+    }
+
+    @Benchmark
+    public GithubBranch branch() {
+        return gh.branch(GithubStubServer.OWNER, "repo-0", "master");
+    }
+
+    @Benchmark
+    public List<GithubFile> files() {
+        return gh.files(GithubStubServer.OWNER, "repo-0", null, "src");
+    }
+}
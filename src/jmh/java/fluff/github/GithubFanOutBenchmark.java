@@ -0,0 +1,66 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures looking up many repositories at once against the stub server, one after the other and
+ * concurrently through {@link GithubAsync}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GithubFanOutBenchmark {
+
+    @Param({ "16", "64" })
+    public int fanOut;
+
+    @Param({ "20" })
+    public int latencyMillis;
+
+    private GithubStubServer server;
+    private Github gh;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new GithubStubServer(fanOut, 1, 1, 1024, Duration.ofMillis(latencyMillis));
+        gh = server.client();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<GithubRepository> sequential() {
+        List<GithubRepository> list = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            list.add(gh.repository(GithubStubServer.OWNER, "repo-" + i));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<GithubRepository> async() {
+        List<CompletableFuture<GithubRepository>> futures = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            futures.add(gh.async().repository(GithubStubServer.OWNER, "repo-" + i));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Recorded GitHub API responses, rendered for a specific owner, repository and base URLs.
+ * <p>
+ * The fixtures under {@code fixtures/} are full API responses with their names and URLs replaced by
+ * {@code {{placeholders}}}, so listings of any size can be built from them.
+ */
+final class GithubFixtures {
+
+    private final String api;
+    private final String raw;
+
+    private final String user = load("user.json");
+    private final String repository = load("repository.json");
+    private final String branch = load("branch.json");
+    private final String content = load("content.json");
+
+    GithubFixtures(String api, String raw) {
+        this.api = api;
+        this.raw = raw;
+    }
+
+    String user(String owner) {
+        return render(user, Map.of("owner", owner));
+    }
+
+    String repository(String owner, String repo, long id) {
+        return render(repository, Map.of("owner", owner, "repo", repo, "id", String.valueOf(id)));
+    }
+
+    String repositories(String owner, int from, int to) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = from; i < to; i++) {
+            if (i > from) sb.append(',');
+            sb.append(repository(owner, "repo-" + i, 1296269 + i));
+        }
+        return sb.append(']').toString();
+    }
+
+    String branch(String owner, String repo, String branchName) {
+        return render(branch, Map.of("owner", owner, "repo", repo, "branch", branchName));
+    }
+
+    String branches(String owner, String repo, int from, int to) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = from; i < to; i++) {
+            if (i > from) sb.append(',');
+            sb.append(branch(owner, repo, "branch-" + i));
+        }
+        return sb.append(']').toString();
+    }
+
+    String contents(String owner, String repo, String branchName, String dirPath, int files, int size) {
+        String prefix = dirPath == null || dirPath.isEmpty() ? "" : dirPath + "/";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < files; i++) {
+            if (i > 0) sb.append(',');
+
+            String name = "file-" + i + ".txt";
+            sb.append(render(content, Map.of("owner", owner, "repo", repo, "branch", branchName, "name", name,
+                    "path", prefix + name, "sha", "%040x".formatted(i), "size", String.valueOf(size))));
+        }
+        return sb.append(']').toString();
+    }
+
+    private String render(String template, Map<String, String> values) {
+        String s = template.replace("{{api}}", api).replace("{{raw}}", raw);
+        for (Map.Entry<String, String> e : values.entrySet()) {
+            s = s.replace("{{" + e.getKey() + "}}", e.getValue());
+        }
+        return s;
+    }
+
+    private static String load(String name) {
+        try (InputStream in = GithubFixtures.class.getResourceAsStream("fixtures/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing fixture " + name);
+
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
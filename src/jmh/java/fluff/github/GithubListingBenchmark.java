@@ -0,0 +1,56 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the time to walk a paginated listing of repositories against the stub server, with the next
+ * page prefetched while the current one is consumed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GithubListingBenchmark {
+
+    @Param({ "100", "1000" })
+    public int repositories;
+
+    @Param({ "0", "20" })
+    public int latencyMillis;
+
+    private GithubStubServer server;
+    private Github gh;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new GithubStubServer(repositories, 1, 1, 1024, Duration.ofMillis(latencyMillis));
+        gh = server.client();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<GithubRepository> list() {
+        return gh.repositories(GithubStubServer.OWNER);
+    }
+
+    @Benchmark
+    public long stream() {
+        return gh.streamRepositories(GithubStubServer.OWNER).filter(r -> !r.isArchived()).count();
+    }
+}
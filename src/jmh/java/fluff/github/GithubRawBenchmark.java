@@ -0,0 +1,83 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the download bandwidth of raw files served by the stub server, read into memory, streamed
+ * into a channel and written to disk. Divide the file size by the reported time for the bandwidth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GithubRawBenchmark {
+
+    @Param({ "65536", "8388608" })
+    public int size;
+
+    private GithubStubServer server;
+    private GithubRawFile rawFile;
+    private Path dir;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new GithubStubServer(1, 1, 1, size, Duration.ZERO);
+        rawFile = server.client().rawFile(GithubStubServer.OWNER, "repo-0", "master", "file-0.txt");
+        dir = Files.createTempDirectory("github-raw-benchmark");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        Files.deleteIfExists(dir.resolve("file-0.txt"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public ByteBuffer content() {
+        return rawFile.content();
+    }
+
+    @Benchmark
+    public long transferTo() {
+        return rawFile.transferTo(new DiscardingChannel());
+    }
+
+    @Benchmark
+    public long downloadTo() {
+        return rawFile.downloadTo(dir.resolve("file-0.txt"));
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
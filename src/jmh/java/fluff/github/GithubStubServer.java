@@ -0,0 +1,168 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fluff.http.path.URLPath;
+
+/**
+ * An in-process server answering GitHub API and raw content requests from {@link GithubFixtures}.
+ * <p>
+ * It serves one owner with a configurable number of repositories, each with the same branches and a
+ * single directory of files, and delays every response by a fixed latency to stand in for the network.
+ * Listings are paginated with {@code Link} headers like the real API.
+ */
+final class GithubStubServer implements AutoCloseable {
+
+    static final String OWNER = "octocat";
+
+    private final int repositories;
+    private final int branches;
+    private final int files;
+    private final byte[] rawContent;
+    private final long latency;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final URLPath api;
+    private final URLPath raw;
+    private final GithubFixtures fixtures;
+
+    /**
+     * Starts a new server on an ephemeral loopback port.
+     *
+     * @param repositories the number of repositories of the owner
+     * @param branches the number of branches of each repository
+     * @param files the number of files in the directory listing of each branch
+     * @param rawSize the size of each raw file in bytes
+     * @param latency the delay added before each response
+     */
+    GithubStubServer(int repositories, int branches, int files, int rawSize, Duration latency) throws IOException {
+        this.repositories = repositories;
+        this.branches = branches;
+        this.files = files;
+        this.rawContent = new byte[rawSize];
+        Arrays.fill(rawContent, (byte) 'x');
+        this.latency = latency.toMillis();
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::api);
+        server.createContext("/raw/", this::raw);
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        api = URLPath.of(base + "api/");
+        raw = URLPath.of(base + "raw/");
+        fixtures = new GithubFixtures(api.toString(), raw.toString());
+    }
+
+    /**
+     * Creates a client talking to this server.
+     *
+     * @return the client
+     */
+    Github client() {
+        return new Github(GithubHttpClientTransport.getDefault(), null, null, api, raw);
+    }
+
+    GithubFixtures getFixtures() {
+        return fixtures;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void api(HttpExchange exchange) throws IOException {
+        delay();
+
+        String path = exchange.getRequestURI().getPath().substring("/api/".length());
+        int page = page(exchange.getRequestURI().getQuery());
+        String[] parts = path.split("/");
+
+        if (parts.length == 2 && parts[0].equals("users")) {
+            send(exchange, fixtures.user(parts[1]));
+        } else if (parts.length == 3 && parts[0].equals("users") && parts[2].equals("repos")) {
+            int from = (page - 1) * GithubPages.PER_PAGE;
+            int to = Math.min(repositories, from + GithubPages.PER_PAGE);
+            link(exchange, "users/" + parts[1] + "/repos", page, to < repositories);
+            send(exchange, fixtures.repositories(parts[1], from, Math.max(from, to)));
+        } else if (parts.length == 3 && parts[0].equals("repos")) {
+            send(exchange, fixtures.repository(parts[1], parts[2], 1296269));
+        } else if (parts.length == 4 && parts[0].equals("repos") && parts[3].equals("branches")) {
+            int from = (page - 1) * GithubPages.PER_PAGE;
+            int to = Math.min(branches, from + GithubPages.PER_PAGE);
+            link(exchange, "repos/" + parts[1] + "/" + parts[2] + "/branches", page, to < branches);
+            send(exchange, fixtures.branches(parts[1], parts[2], from, Math.max(from, to)));
+        } else if (parts.length == 5 && parts[0].equals("repos") && parts[3].equals("branches")) {
+            send(exchange, fixtures.branch(parts[1], parts[2], parts[4]));
+        } else if (parts.length >= 4 && parts[0].equals("repos") && parts[3].equals("contents")) {
+            String dirPath = String.join("/", Arrays.copyOfRange(parts, 4, parts.length));
+            send(exchange, fixtures.contents(parts[1], parts[2], "master", dirPath, files, rawContent.length));
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        }
+    }
+
+    private void raw(HttpExchange exchange) throws IOException {
+        delay();
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, rawContent.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(rawContent);
+        }
+    }
+
+    private void link(HttpExchange exchange, String path, int page, boolean hasNext) {
+        if (!hasNext) return;
+
+        exchange.getResponseHeaders().set("Link",
+                "<" + api + path + "?per_page=" + GithubPages.PER_PAGE + "&page=" + (page + 1) + ">; rel=\"next\"");
+    }
+
+    private void send(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", "5000");
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", "4999");
+        exchange.getResponseHeaders().set("X-RateLimit-Resource", "core");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void delay() {
+        if (latency <= 0) return;
+
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int page(String query) {
+        if (query == null) return 1;
+
+        for (String param : query.split("&")) {
+            if (param.startsWith("page=")) return Integer.parseInt(param.substring(5));
+        }
+        return 1;
+    }
+}
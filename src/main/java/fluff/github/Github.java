@@ -1,16 +1,29 @@
 package fluff.github;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import fluff.http.HTTP;
+import fluff.http.body.HTTPBody;
 import fluff.http.body.HTTPBodyParser;
-import fluff.http.head.HTTPHead;
 import fluff.http.head.HTTPHeader;
 import fluff.http.path.URLPath;
-import fluff.http.request.HTTPRequest;
-import fluff.http.response.HTTPResponse;
-import fluff.http.response.HTTPResponseStatus;
 import fluff.json.JSONArray;
 import fluff.json.JSONObject;
 
@@ -34,8 +47,46 @@ public class Github {
      */
     public static final URLPath RAW = URLPath.of("https://raw.githubusercontent.com/");
     
-    final HTTP http;
+    private static final int NOT_MODIFIED = 304;
+    private static final int FORBIDDEN = 403;
+    private static final int DRAIN_LIMIT = 64 * 1024;
+    private static final int MAX_COMPARE_FILES = 300;
+    
+    final GithubTransport transport;
+    final URLPath api;
+    final URLPath raw;
     private final String token;
+    private final String authorization;
+    private final GithubTokenPool tokenPool;
+    
+    private volatile GithubResponseCache cache;
+    private volatile GithubAsync async;
+    private volatile GithubRateLimiter rateLimiter;
+    private volatile GithubCoalescer coalescer;
+    private volatile GithubBlobStore blobStore;
+    private volatile GithubEntityCache entityCache;
+    private volatile GithubListener listener;
+    private volatile GithubRetryPolicy retryPolicy;
+    
+    /**
+     * Constructs a new Github instance with the specified transport and Github personal token.
+     *
+     * @param transport the transport sending the requests
+     * @param token the Github personal token to use (can be null)
+     */
+    public Github(GithubTransport transport, String token) {
+        this(transport, token, null, API, RAW);
+    }
+    
+    /**
+     * Constructs a new Github instance with the specified transport, rotating between the tokens of a pool.
+     *
+     * @param transport the transport sending the requests
+     * @param tokenPool the pool of Github tokens to use
+     */
+    public Github(GithubTransport transport, GithubTokenPool tokenPool) {
+        this(transport, null, tokenPool, API, RAW);
+    }
     
     /**
      * Constructs a new Github instance with the specified HTTP client and Github personal token.
@@ -44,8 +95,45 @@ public class Github {
      * @param token the Github personal token to use
      */
     public Github(HTTP http, String token) {
-        this.http = http;
+        this(new GithubFluffTransport(http), token);
+    }
+    
+    /**
+     * Constructs a new Github instance with the specified HTTP client, rotating between the tokens of a pool.
+     *
+     * @param http the HTTP client to use
+     * @param tokenPool the pool of Github tokens to use
+     */
+    public Github(HTTP http, GithubTokenPool tokenPool) {
+        this(new GithubFluffTransport(http), tokenPool);
+    }
+    
+    /**
+     * Constructs a new Github instance talking to the specified base URLs instead of GitHub, used to
+     * run the client against a local server.
+     *
+     * @param transport the transport sending the requests
+     * @param token the Github personal token to use (can be null)
+     * @param tokenPool the pool of Github tokens to use (can be null)
+     * @param api the base URL of the API
+     * @param raw the base URL of raw content
+     */
+    Github(GithubTransport transport, String token, GithubTokenPool tokenPool, URLPath api, URLPath raw) {
+        this.transport = transport;
+        this.api = api;
+        this.raw = raw;
         this.token = token;
+        this.authorization = token == null ? null : GithubToken.authorization(token);
+        this.tokenPool = tokenPool;
+    }
+    
+    /**
+     * Constructs a new Github instance rotating between the tokens of a pool, with the default HTTP client.
+     *
+     * @param tokenPool the pool of Github tokens to use
+     */
+    public Github(GithubTokenPool tokenPool) {
+        this(new HTTP(), tokenPool);
     }
     
     /**
@@ -63,14 +151,14 @@ public class Github {
      * @param http the HTTP client to use
      */
     public Github(HTTP http) {
-        this(http, null);
+        this(http, (String) null);
     }
     
     /**
      * Constructs a new Github instance with the default HTTP client and no Github personal token.
      */
     public Github() {
-        this(new HTTP(), null);
+        this(new HTTP(), (String) null);
     }
     
     /**
@@ -80,13 +168,42 @@ public class Github {
      * @return a GithubUser object representing the user, or null if the user does not exist
      */
     public GithubUser user(String userName) {
-        HTTPResponse r = response(API.derive("users/" + userName));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
-        
-        JSONObject json = r.getBody()
-                .get(HTTPBodyParser.JSON_OBJECT);
+        GithubEntityCache entities = entityCache;
+        if (entities != null) {
+            GithubUser user = entities.user(userName);
+            if (user != null) return user;
+        }
         
-        return new GithubUser(this, json);
+        GithubUser user = bind(api.derive("users/" + userName), GithubUser.class, GithubBinder.user(this));
+        if (entities != null && user != null) entities.put(user);
+        return user;
+    }
+    
+    /**
+     * Retrieves many GitHub users at once through the GraphQL API, with one request per
+     * 100 users. Requires a token.
+     *
+     * @param userNames the usernames of the users to retrieve
+     * @return a map of the found users by username, in the order of the usernames; users that do not exist
+     *         or could not be retrieved are missing from the map
+     */
+    public Map<String, GithubUser> users(Collection<String> userNames) {
+        List<String> list = new ArrayList<>(new LinkedHashSet<>(userNames));
+        Map<String, GithubUser> map = new LinkedHashMap<>();
+        for (List<String> chunk : GithubGraphQL.chunks(list)) {
+            JSONObject data = graphql(GithubGraphQL.usersQuery(chunk));
+            if (data == null) continue;
+            
+            for (int i = 0; i < chunk.size(); i++) {
+                JSONObject node = data.getObject("u" + i);
+                if (node == null) continue;
+                
+                GithubUser user = GithubGraphQL.user(this, node);
+                map.put(chunk.get(i), user);
+                cache(user);
+            }
+        }
+        return map;
     }
     
     /**
@@ -97,33 +214,73 @@ public class Github {
      * @return a GithubRepository object representing the repository, or null if the repository does not exist
      */
     public GithubRepository repository(String userName, String repoName) {
-        HTTPResponse r = response(API.derive("repos/" + userName + "/" + repoName));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
-        
-        JSONObject json = r.getBody()
-                .get(HTTPBodyParser.JSON_OBJECT);
+        GithubEntityCache entities = entityCache;
+        if (entities != null) {
+            GithubRepository repository = entities.repository(userName, repoName);
+            if (repository != null) return repository;
+        }
         
-        return new GithubRepository(this, json);
+        GithubRepository repository = bind(api.derive("repos/" + userName + "/" + repoName), GithubRepository.class, GithubBinder.repository(this));
+        if (entities != null && repository != null) entities.put(repository);
+        return repository;
     }
     
     /**
-     * Retrieves a list of repositories for a GitHub user.
+     * Retrieves a list of repositories for a GitHub user, following all result pages.
      *
      * @param userName the user name of the GitHub user
-     * @return a list of GithubRepository objects representing the user's repositories
+     * @return a list of GithubRepository objects representing the user's repositories, or null if the user does not exist
      */
     public List<GithubRepository> repositories(String userName) {
-        HTTPResponse r = response(API.derive("users/" + userName + "/repos"));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
-        
-        JSONArray json = r.getBody()
-                .get(HTTPBodyParser.JSON_ARRAY);
-        
-        List<GithubRepository> list = new ArrayList<>(json.size());
-        for (int i = 0; i < json.size(); i++) {
-            list.add(new GithubRepository(this, json.getObject(i)));
+        return iterateRepositories(userName).toList();
+    }
+    
+    /**
+     * Lazily iterates over the repositories of a GitHub user, fetching one page at a time.
+     *
+     * @param userName the user name of the GitHub user
+     * @return an iterator over the user's repositories
+     */
+    public GithubPages<GithubRepository> iterateRepositories(String userName) {
+        return new GithubPages<>(this, api.derive(GithubPages.perPage("users/" + userName + "/repos")),
+                GithubBinder.repository(this));
+    }
+    
+    /**
+     * Lazily streams the repositories of a GitHub user, fetching one page at a time.
+     *
+     * @param userName the user name of the GitHub user
+     * @return a stream of the user's repositories
+     */
+    public Stream<GithubRepository> streamRepositories(String userName) {
+        return iterateRepositories(userName).stream();
+    }
+    
+    /**
+     * Retrieves many GitHub repositories at once through the GraphQL API, with one request per
+     * 100 repositories. Requires a token.
+     *
+     * @param refs the repositories to retrieve
+     * @return a map of the found repositories, in the order of the references; repositories that do not exist
+     *         or could not be retrieved are missing from the map
+     */
+    public Map<GithubRepoRef, GithubRepository> repositories(Collection<GithubRepoRef> refs) {
+        List<GithubRepoRef> list = new ArrayList<>(new LinkedHashSet<>(refs));
+        Map<GithubRepoRef, GithubRepository> map = new LinkedHashMap<>();
+        for (List<GithubRepoRef> chunk : GithubGraphQL.chunks(list)) {
+            JSONObject data = graphql(GithubGraphQL.repositoriesQuery(chunk));
+            if (data == null) continue;
+            
+            for (int i = 0; i < chunk.size(); i++) {
+                JSONObject node = data.getObject("r" + i);
+                if (node == null) continue;
+                
+                GithubRepository repository = GithubGraphQL.repository(this, node);
+                map.put(chunk.get(i), repository);
+                cache(repository);
+            }
         }
-        return list;
+        return map;
     }
     
     /**
@@ -135,34 +292,261 @@ public class Github {
      * @return a GithubBranch object representing the branch, or null if the branch does not exist
      */
     public GithubBranch branch(String userName, String repoName, String branchName) {
-        HTTPResponse r = response(API.derive("repos/" + userName + "/" + repoName + "/branches/" + branchName));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
-        
-        JSONObject json = r.getBody()
-                .get(HTTPBodyParser.JSON_OBJECT);
+        GithubEntityCache entities = entityCache;
+        if (entities != null) {
+            GithubBranch branch = entities.branch(userName, repoName, branchName);
+            if (branch != null) return branch;
+        }
         
-        return new GithubBranch(this, userName, repoName, json);
+        GithubBranch branch = bind(api.derive("repos/" + userName + "/" + repoName + "/branches/" + branchName), GithubBranch.class,
+                GithubBinder.branch(this, userName, repoName));
+        if (entities != null && branch != null) entities.put(branch);
+        return branch;
     }
     
     /**
-     * Retrieves a list of branches in a GitHub repository.
+     * Retrieves a list of branches in a GitHub repository, following all result pages.
      *
      * @param userName the user name of the repository owner
      * @param repoName the name of the repository
-     * @return a list of GithubBranch objects representing the branches in the repository
+     * @return a list of GithubBranch objects representing the branches in the repository, or null if the repository does not exist
      */
     public List<GithubBranch> branches(String userName, String repoName) {
-        HTTPResponse r = response(API.derive("repos/" + userName + "/" + repoName + "/branches"));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
+        return iterateBranches(userName, repoName).toList();
+    }
+    
+    /**
+     * Lazily iterates over the branches of a GitHub repository, fetching one page at a time.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return an iterator over the branches in the repository
+     */
+    public GithubPages<GithubBranch> iterateBranches(String userName, String repoName) {
+        return new GithubPages<>(this, api.derive(GithubPages.perPage("repos/" + userName + "/" + repoName + "/branches")),
+                GithubBinder.branch(this, userName, repoName));
+    }
+    
+    /**
+     * Lazily streams the branches of a GitHub repository, fetching one page at a time.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return a stream of the branches in the repository
+     */
+    public Stream<GithubBranch> streamBranches(String userName, String repoName) {
+        return iterateBranches(userName, repoName).stream();
+    }
+    
+    /**
+     * Retrieves the releases of a GitHub repository, newest first, following all result pages.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return a list of GithubRelease objects representing the releases, or null if the repository does not exist
+     */
+    public List<GithubRelease> releases(String userName, String repoName) {
+        return iterateReleases(userName, repoName).toList();
+    }
+    
+    /**
+     * Lazily iterates over the releases of a GitHub repository, newest first, fetching one page at a time.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return an iterator over the releases
+     */
+    public GithubPages<GithubRelease> iterateReleases(String userName, String repoName) {
+        return new GithubPages<>(this, api.derive(GithubPages.perPage("repos/" + userName + "/" + repoName + "/releases")),
+                GithubBinder.release(this, userName, repoName));
+    }
+    
+    /**
+     * Lazily streams the releases of a GitHub repository, newest first, fetching one page at a time.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return a stream of the releases
+     */
+    public Stream<GithubRelease> streamReleases(String userName, String repoName) {
+        return iterateReleases(userName, repoName).stream();
+    }
+    
+    /**
+     * Retrieves the latest published release of a GitHub repository, ignoring drafts and prereleases.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return a GithubRelease object representing the release, or null if the repository has no published release
+     */
+    public GithubRelease latestRelease(String userName, String repoName) {
+        return bind(api.derive("repos/" + userName + "/" + repoName + "/releases/latest"), GithubRelease.class, GithubBinder.release(this, userName, repoName));
+    }
+    
+    /**
+     * Retrieves the release of a GitHub repository pointing at a tag.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param tagName the name of the tag
+     * @return a GithubRelease object representing the release, or null if the tag has no release
+     */
+    public GithubRelease release(String userName, String repoName, String tagName) {
+        return bind(api.derive("repos/" + userName + "/" + repoName + "/releases/tags/" + tagName), GithubRelease.class, GithubBinder.release(this, userName, repoName));
+    }
+    
+    /**
+     * Retrieves the files changed between two commits of a GitHub repository.
+     * <p>
+     * The files are read from a single comparison of the commits. GitHub lists at most 300 files in a
+     * comparison, so a comparison reaching that many falls back to comparing the trees of both commits level
+     * by level, skipping the subtrees left unchanged. Only this fallback loses renames and copies, which it
+     * reports as removed and added files.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param base the base commit SHA, branch or tag
+     * @param head the head commit SHA, branch or tag
+     * @return an unmodifiable list of GithubChange objects representing the changed files, or null if either commit
+     *         does not exist or its tree could not be listed
+     */
+    public List<GithubChange> changes(String userName, String repoName, String base, String head) {
+        List<GithubChange> changes = compare(userName, repoName, base, head);
+        if (changes == null || changes.size() < MAX_COMPARE_FILES) return changes;
         
-        JSONArray json = r.getBody()
-                .get(HTTPBodyParser.JSON_ARRAY);
+        return new GithubTreeDiff(this, userName, repoName, base, head).toList();
+    }
+    
+    /**
+     * Lazily streams the files changed between two commits of a GitHub repository, like
+     * {@link #changes(String, String, String, String)}. When the comparison falls back to the trees of both
+     * commits, the trees are listed as the stream is consumed, and renames and copies are reported as
+     * removed and added files.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param base the base commit SHA, branch or tag
+     * @param head the head commit SHA, branch or tag
+     * @return a stream of GithubChange objects representing the changed files, empty if either commit does not exist
+     * @throws IllegalStateException from the stream if a tree could not be listed
+     */
+    public Stream<GithubChange> streamChanges(String userName, String repoName, String base, String head) {
+        List<GithubChange> changes = compare(userName, repoName, base, head);
+        if (changes == null) return Stream.empty();
+        if (changes.size() < MAX_COMPARE_FILES) return changes.stream();
         
-        List<GithubBranch> list = new ArrayList<>(json.size());
-        for (int i = 0; i < json.size(); i++) {
-            list.add(new GithubBranch(this, userName, repoName, json.getObject(i)));
-        }
-        return list;
+        GithubTreeDiff diff = new GithubTreeDiff(this, userName, repoName, base, head);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(diff, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    private List<GithubChange> compare(String userName, String repoName, String base, String head) {
+        GithubBinder<GithubChange> binder = GithubBinder.change(this, userName, repoName, head);
+        // per_page only pages the commits of a comparison, every listed file is in the first response
+        return get(api.derive("repos/" + userName + "/" + repoName + "/compare/" + base + "..." + head + "?per_page=1"),
+                List.class, r -> binder.readArray(r.getBody(), "files"));
+    }
+    
+    /**
+     * Lazily iterates over the repositories matching a search query. Queries matching more than
+     * {@value GithubSearch#MAX_RESULTS} repositories are partitioned by creation date, unless the query
+     * already filters on it.
+     *
+     * @param query the search query, like {@code topic:java language:java stars:>100}
+     * @return an iterator over the matching repositories
+     */
+    public GithubSearch<GithubRepository> iterateRepositorySearch(String query) {
+        return new GithubSearch<>(this, "search/repositories", query, GithubSearch.Partitioning.CREATED, GithubBinder.repository(this));
+    }
+    
+    /**
+     * Lazily streams the repositories matching a search query, fetching one page of results at a time.
+     *
+     * @param query the search query, like {@code topic:java language:java stars:>100}
+     * @return a stream of the matching repositories
+     * @see #iterateRepositorySearch(String)
+     */
+    public Stream<GithubRepository> searchRepositories(String query) {
+        return iterateRepositorySearch(query).stream();
+    }
+    
+    /**
+     * Lazily iterates over the files matching a code search query. Queries matching more than
+     * {@value GithubSearch#MAX_RESULTS} files are partitioned by file size, unless the query already
+     * filters on it. Code search requires a token.
+     *
+     * @param query the search query, like {@code GithubRateLimiter language:java user:muscaa}
+     * @return an iterator over the matching files, pointing at the indexed commit of their repository
+     */
+    public GithubSearch<GithubFile> iterateCodeSearch(String query) {
+        return new GithubSearch<>(this, "search/code", query, GithubSearch.Partitioning.SIZE, GithubBinder.codeResult(this));
+    }
+    
+    /**
+     * Lazily streams the files matching a code search query, fetching one page of results at a time.
+     *
+     * @param query the search query, like {@code GithubRateLimiter language:java user:muscaa}
+     * @return a stream of the matching files
+     * @see #iterateCodeSearch(String)
+     */
+    public Stream<GithubFile> searchCode(String query) {
+        return iterateCodeSearch(query).stream();
+    }
+    
+    /**
+     * Lazily iterates over the commits reachable from a commit of a GitHub repository, newest first,
+     * fetching one page at a time.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param ref the commit SHA, branch or tag to start from
+     * @param since only list commits committed at or after this time (can be null)
+     * @param until only list commits committed at or before this time (can be null)
+     * @param path only list commits touching this file or directory (can be null)
+     * @return an iterator over the commits
+     */
+    public GithubPages<GithubCommit> iterateCommits(String userName, String repoName, String ref, Instant since, Instant until, String path) {
+        StringBuilder query = new StringBuilder("repos/" + userName + "/" + repoName + "/commits?sha=").append(encode(ref));
+        if (since != null) query.append("&since=").append(since);
+        if (until != null) query.append("&until=").append(until);
+        if (path != null) query.append("&path=").append(encode(path));
+        
+        return new GithubPages<>(this, api.derive(GithubPages.perPage(query.toString())), GithubBinder.commit(this, userName, repoName));
+    }
+    
+    /**
+     * Lazily streams the commits reachable from a commit of a GitHub repository, newest first,
+     * fetching one page at a time.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param ref the commit SHA, branch or tag to start from
+     * @param since only list commits committed at or after this time (can be null)
+     * @param until only list commits committed at or before this time (can be null)
+     * @param path only list commits touching this file or directory (can be null)
+     * @return a stream of the commits
+     */
+    public Stream<GithubCommit> streamCommits(String userName, String repoName, String ref, Instant since, Instant until, String path) {
+        return iterateCommits(userName, repoName, ref, since, until, path).stream();
+    }
+    
+    /**
+     * Lazily iterates over the commits reachable from a commit of a GitHub repository that were made
+     * after a cursor, newest first. Persist {@link GithubCommits#getCursor()} once the iteration is
+     * exhausted to resume from there in a later run.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param ref the commit SHA, branch or tag to start from
+     * @param cursor the cursor of the last run (can be null to list every commit)
+     * @param path only list commits touching this file or directory (can be null)
+     * @return an iterator over the new commits
+     */
+    public GithubCommits commitsSince(String userName, String repoName, String ref, GithubCommitCursor cursor, String path) {
+        return new GithubCommits(iterateCommits(userName, repoName, ref, cursor == null ? null : cursor.getDate(), null, path), cursor);
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
     
     /**
@@ -178,13 +562,8 @@ public class Github {
     	branchName = branchName != null ? "?ref=" + branchName : "";
     	filePath = filePath == null ? "" : filePath;
         
-        HTTPResponse r = response(API.derive("repos/" + userName + "/" + repoName + "/contents/" + filePath + branchName));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
-        
-        JSONObject json = r.getBody()
-                .get(HTTPBodyParser.JSON_OBJECT);
-        
-        return new GithubFile(this, userName, repoName, branchName, json);
+        return bind(api.derive("repos/" + userName + "/" + repoName + "/contents/" + filePath + branchName), GithubFile.class,
+                GithubBinder.file(this, userName, repoName, branchName));
     }
     
     /**
@@ -194,25 +573,107 @@ public class Github {
      * @param repoName the name of the repository
      * @param branchName the name of the branch (can be null)
      * @param dirPath the path to the directory
-     * @return a list of GithubFile objects representing the files in the directory
+     * @return an unmodifiable list of GithubFile objects representing the files in the directory
      */
     public List<GithubFile> files(String userName, String repoName, String branchName, String dirPath) {
     	branchName = branchName != null ? "?ref=" + branchName : "";
     	dirPath = dirPath == null ? "" : dirPath;
         
-        HTTPResponse r = response(API.derive("repos/" + userName + "/" + repoName + "/contents/" + dirPath + branchName));
-        if (r.getStatus() != HTTPResponseStatus.OK) return null;
+        GithubBinder<GithubFile> binder = GithubBinder.file(this, userName, repoName, branchName);
+        return get(api.derive("repos/" + userName + "/" + repoName + "/contents/" + dirPath + branchName), List.class,
+                r -> binder.readArray(r.getBody()));
+    }
+    
+    /**
+     * Retrieves all entries of a directory tree in a GitHub repository, recursively, with a single
+     * request to the git trees API. When GitHub truncates the listing, the tree is walked one level
+     * at a time and each subtree is listed recursively on its own.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     * @param dirPath the path to the directory to list (can be null for the repository root)
+     * @return a list of GithubTreeEntry objects with paths relative to the repository root, or null if the tree does not
+     *         exist or any subtree of a truncated listing could not be listed
+     */
+    public List<GithubTreeEntry> tree(String userName, String repoName, String branchName, String dirPath) {
+        String basePath = dirPath == null || dirPath.isEmpty() ? "" : dirPath + "/";
+        String treeish = basePath.isEmpty() ? branchName : branchName + ":" + dirPath;
         
-        JSONArray json = r.getBody()
-                .get(HTTPBodyParser.JSON_ARRAY);
+        List<GithubTreeEntry> list = new ArrayList<>();
+        if (!tree(userName, repoName, branchName, treeish, basePath, true, list)) return null;
+        return list;
+    }
+    
+    /**
+     * Lists a single level of a tree, without its subtrees.
+     *
+     * @return the entries of the level, or null if the tree does not exist or its listing was truncated
+     */
+    List<GithubTreeEntry> treeLevel(String userName, String repoName, String branchName, String treeish, String basePath) {
+        JSONObject json = get(api.derive("repos/" + userName + "/" + repoName + "/git/trees/" + treeish), JSONObject.class,
+                r -> parse(r, HTTPBodyParser.JSON_OBJECT));
+        if (json == null || json.getBoolean("truncated")) return null;
         
-        List<GithubFile> list = new ArrayList<>(json.size());
-        for (int i = 0; i < json.size(); i++) {
-            list.add(new GithubFile(this, userName, repoName, branchName, json.getObject(i)));
+        JSONArray tree = json.getArray("tree");
+        List<GithubTreeEntry> list = new ArrayList<>(tree.size());
+        for (int i = 0; i < tree.size(); i++) {
+            list.add(new GithubTreeEntry(this, userName, repoName, branchName, basePath, tree.getObject(i)));
         }
         return list;
     }
     
+    /**
+     * Lists all entries of a subtree recursively, like {@link #tree(String, String, String, String)}.
+     *
+     * @return the entries of the subtree, or null if it could not be listed
+     */
+    List<GithubTreeEntry> subtree(String userName, String repoName, String branchName, String treeish, String basePath) {
+        List<GithubTreeEntry> list = new ArrayList<>();
+        if (!tree(userName, repoName, branchName, treeish, basePath, true, list)) return null;
+        return list;
+    }
+    
+    private boolean tree(String userName, String repoName, String branchName, String treeish, String basePath, boolean recursive, List<GithubTreeEntry> list) {
+        JSONObject json = get(api.derive("repos/" + userName + "/" + repoName + "/git/trees/" + treeish + (recursive ? "?recursive=1" : "")), JSONObject.class,
+                r -> parse(r, HTTPBodyParser.JSON_OBJECT));
+        if (json == null) return false;
+        
+        if (recursive && json.getBoolean("truncated")) {
+            return tree(userName, repoName, branchName, json.getString("sha"), basePath, false, list);
+        }
+        
+        JSONArray tree = json.getArray("tree");
+        for (int i = 0; i < tree.size(); i++) {
+            GithubTreeEntry entry = new GithubTreeEntry(this, userName, repoName, branchName, basePath, tree.getObject(i));
+            list.add(entry);
+            
+            if (!recursive && entry.isTree()) {
+                if (!tree(userName, repoName, branchName, entry.getSHA(), entry.getPath() + "/", true, list)) return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Opens the archive of a branch in a GitHub repository as a stream of entries.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     * @param format the archive format
+     * @return a GithubArchive reading the archive from the response, or null if the branch does not exist
+     */
+    public GithubArchive archive(String userName, String repoName, String branchName, GithubArchive.Format format) {
+        GithubResponse r = response(api.derive("repos/" + userName + "/" + repoName + "/" + format.getEndpoint() + "/" + branchName));
+        if (!r.isOK()) {
+            discard(r);
+            return null;
+        }
+        
+        return new GithubArchive(r.getBody(), format);
+    }
+    
     /**
      * Retrieves a raw file from a GitHub repository.
      *
@@ -223,16 +684,446 @@ public class Github {
      * @return a GithubRawFile object representing the raw file
      */
     public GithubRawFile rawFile(String userName, String repoName, String branchName, String filePath) {
-    	return new GithubRawFile(this, RAW.derive(userName + "/" + repoName + "/" + branchName + "/" + filePath));
+    	return rawFile(userName, repoName, branchName, filePath, null);
+    }
+    
+    GithubRawFile rawFile(String userName, String repoName, String branchName, String filePath, String sha) {
+    	return new GithubRawFile(this, raw.derive(userName + "/" + repoName + "/" + branchName + "/" + filePath), sha);
+    }
+    
+    /**
+     * Returns the asynchronous view of this client, running requests on virtual threads
+     * with the default in-flight bound.
+     *
+     * @return the asynchronous client
+     */
+    public GithubAsync async() {
+        GithubAsync a = async;
+        if (a == null) {
+            synchronized (this) {
+                a = async;
+                if (a == null) async = a = new GithubAsync(this);
+            }
+        }
+        return a;
+    }
+    
+    /**
+     * Returns a bulk view of this client, running pipelines of lookups with the default parallelism per stage.
+     *
+     * @return the bulk client
+     */
+    public GithubBulk bulk() {
+        return new GithubBulk(this);
+    }
+    
+    /**
+     * Returns a bulk view of this client, running pipelines of lookups with the specified parallelism per stage.
+     *
+     * @param parallelism the maximum number of items processed at the same time by each stage
+     * @return the bulk client
+     */
+    public GithubBulk bulk(int parallelism) {
+        return new GithubBulk(this, parallelism);
+    }
+    
+    /**
+     * Sets the cache used to revalidate API responses with conditional requests.
+     *
+     * @param cache the response cache to use, or null to disable caching
+     */
+    public void setCache(GithubResponseCache cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Returns the cache used to revalidate API responses with conditional requests.
+     *
+     * @return the response cache, or null if caching is disabled
+     */
+    public GithubResponseCache getCache() {
+        return cache;
     }
     
-    HTTPResponse response(URLPath path) {
-        HTTPRequest r = http.GET(path);
-        if (token != null) {
-        	r.setHead(HTTPHead.builder()
-        		.add(HTTPHeader.AUTHORIZATION, "Bearer " + token)
-        		.build());
+    /**
+     * Sets the rate limiter scheduling the requests of this client.
+     *
+     * @param rateLimiter the rate limiter to use, or null to send requests unscheduled
+     */
+    public void setRateLimiter(GithubRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+    
+    /**
+     * Returns the rate limiter scheduling the requests of this client.
+     *
+     * @return the rate limiter, or null if requests are sent unscheduled
+     */
+    public GithubRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Returns the pool of tokens this client rotates between.
+     *
+     * @return the token pool, or null if the client uses a single token
+     */
+    public GithubTokenPool getTokenPool() {
+        return tokenPool;
+    }
+    
+    /**
+     * Returns the current budget of a rate limit resource for this client's token.
+     * Clients using a token pool report the budget of each token through {@link #getTokenPool()}.
+     *
+     * @param resource the rate limit resource (e.g., {@link GithubRateLimiter#CORE})
+     * @return the rate limit snapshot, or null if no rate limiter is set or no response reported it yet
+     */
+    public GithubRateLimit rateLimit(String resource) {
+        GithubRateLimiter limiter = rateLimiter;
+        return limiter == null ? null : limiter.getRateLimit(token, resource);
+    }
+    
+    /**
+     * Sets the blob store consulted before downloading raw files whose git SHA is known.
+     *
+     * @param blobStore the blob store to use, or null to always download raw files
+     */
+    public void setBlobStore(GithubBlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+    
+    /**
+     * Returns the blob store consulted before downloading raw files whose git SHA is known.
+     *
+     * @return the blob store, or null if raw files are always downloaded
+     */
+    public GithubBlobStore getBlobStore() {
+        return blobStore;
+    }
+    
+    /**
+     * Sets the cache serving repeated user, repository and branch lookups without any request.
+     *
+     * @param entityCache the entity cache to use, or null to always look entities up
+     */
+    public void setEntityCache(GithubEntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+    
+    /**
+     * Returns the cache serving repeated user, repository and branch lookups without any request.
+     *
+     * @return the entity cache, or null if entities are always looked up
+     */
+    public GithubEntityCache getEntityCache() {
+        return entityCache;
+    }
+    
+    /**
+     * Sets the listener observing every request of this client.
+     *
+     * @param listener the listener to use, or null to observe nothing
+     * @see GithubMetrics
+     * @see GithubListener#jfr()
+     */
+    public void setListener(GithubListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Returns the listener observing every request of this client.
+     *
+     * @return the listener, or null if nothing is observed
+     */
+    public GithubListener getListener() {
+        return listener;
+    }
+    
+    /**
+     * Sets the policy retrying failed requests and hedging slow raw content requests.
+     *
+     * @param retryPolicy the retry policy to use, or null to send every request once
+     */
+    public void setRetryPolicy(GithubRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+    
+    /**
+     * Returns the policy retrying failed requests and hedging slow raw content requests.
+     *
+     * @return the retry policy, or null if every request is sent once
+     */
+    public GithubRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+    
+    /**
+     * Returns the transport sending the requests of this client.
+     *
+     * @return the transport
+     */
+    public GithubTransport getTransport() {
+        return transport;
+    }
+    
+    private void cache(GithubUser user) {
+        GithubEntityCache entities = entityCache;
+        if (entities != null && user.getUserName() != null) entities.put(user);
+    }
+    
+    private void cache(GithubRepository repository) {
+        GithubEntityCache entities = entityCache;
+        if (entities != null && repository.getUserName() != null && repository.getRepoName() != null) entities.put(repository);
+    }
+    
+    /**
+     * Retrieves a single object, binding only the fields its model keeps straight from the response stream.
+     *
+     * @param path the API URL
+     * @param type the model type
+     * @param binder the binder of the model
+     * @return the bound model, or null if the request failed
+     */
+    <V> V bind(URLPath path, Class<V> type, GithubBinder<V> binder) {
+        return get(path, type, r -> binder.read(r.getBody()));
+    }
+    
+    /**
+     * Sets the coalescer deduplicating identical lookups that run at the same time.
+     *
+     * @param coalescer the coalescer to use, or null to send every lookup on its own
+     */
+    public void setCoalescer(GithubCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+    
+    /**
+     * Returns the coalescer deduplicating identical lookups that run at the same time.
+     *
+     * @return the coalescer, or null if every lookup is sent on its own
+     */
+    public GithubCoalescer getCoalescer() {
+        return coalescer;
+    }
+    
+    /**
+     * Retrieves and reads a response. Cached and coalesced results are shared by URL and by the type the
+     * body is read as, so the same URL read into different objects never hands one caller the object of another.
+     * The same object is returned to every caller sharing it, so the reader must return an immutable one.
+     *
+     * @param path the API URL
+     * @param type the type the body is read as
+     * @param reader reads the body of a successful response
+     * @return the read object, or null if the request failed
+     */
+    <V> V get(URLPath path, Class<? super V> type, Function<GithubResponse, V> reader) {
+        GithubCoalescer coalescer = this.coalescer;
+        if (coalescer == null) return fetch(path, type, reader);
+        
+        return coalescer.execute(path.toString(), type, tokenPool != null ? tokenPool : token, () -> fetch(path, type, reader));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <V> V fetch(URLPath path, Class<? super V> type, Function<GithubResponse, V> reader) {
+        GithubResponseCache cache = this.cache;
+        if (cache == null) {
+            GithubResponse r = response(path);
+            if (!r.isOK()) {
+                discard(r);
+                return null;
+            }
+            
+            return reader.apply(r);
+        }
+        
+        String key = GithubResponseCache.key(path.toString(), type);
+        GithubResponseCache.Entry entry = cache.get(key);
+        
+        Map<HTTPHeader, String> headers = new HashMap<>();
+        if (entry != null) {
+            if (entry.getETag() != null) headers.put(GithubHeaders.IF_NONE_MATCH, entry.getETag());
+            if (entry.getLastModified() != null) headers.put(GithubHeaders.IF_MODIFIED_SINCE, entry.getLastModified());
+        }
+        
+        GithubResponse r = response(path, headers);
+        if (entry != null && r.getStatus() == NOT_MODIFIED) {
+            discard(r);
+            cache.revalidated(key, entry);
+            return (V) type.cast(entry.getBody());
+        }
+        if (!r.isOK()) {
+            discard(r);
+            if (entry != null) cache.invalidate(key);
+            return null;
+        }
+        
+        V body = reader.apply(r);
+        
+        String etag = GithubHeaders.get(r, GithubHeaders.ETAG);
+        String lastModified = GithubHeaders.get(r, GithubHeaders.LAST_MODIFIED);
+        if (etag != null || lastModified != null) {
+            cache.put(key, new GithubResponseCache.Entry(etag, lastModified, body));
+        } else if (entry != null) {
+            cache.invalidate(key);
+        }
+        return body;
+    }
+    
+    /**
+     * Sends a GraphQL query.
+     *
+     * @param body the JSON request body
+     * @return the data object of the response, or null if the request failed
+     */
+    JSONObject graphql(String body) {
+        GithubResponse r = response(api.derive("graphql"), Map.of(), body);
+        if (!r.isOK()) {
+            discard(r);
+            return null;
+        }
+        
+        return parse(r, HTTPBodyParser.JSON_OBJECT).getObject("data");
+    }
+    
+    private static <V> V parse(GithubResponse r, HTTPBodyParser<V> parser) {
+        try (InputStream in = r.getBody()) {
+            return HTTPBody.of(new String(in.readAllBytes(), StandardCharsets.UTF_8)).get(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Releases a response whose body is not read, so its connection or stream can be reused. A small
+     * body is read to its end first, a larger one is abandoned.
+     *
+     * @param r the response
+     */
+    static void discard(GithubResponse r) {
+        try (InputStream in = r.getBody()) {
+            long drained = 0;
+            long skipped;
+            while (in != null && drained < DRAIN_LIMIT && (skipped = in.skip(DRAIN_LIMIT - drained)) > 0) {
+                drained += skipped;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // nothing of the body is needed, failing to read it only means its connection is not reused
+        }
+    }
+    
+    GithubResponse response(URLPath path) {
+        return response(path, Map.of());
+    }
+    
+    GithubResponse response(URLPath path, Map<HTTPHeader, String> headers) {
+        return response(path, headers, null);
+    }
+    
+    GithubResponse response(URLPath path, Map<HTTPHeader, String> headers, String body) {
+        String resource = GithubRateLimiter.resource(api, path);
+        GithubTokenPool pool = tokenPool;
+        GithubToken pooled = pool == null ? null : pool.acquire(resource);
+        String token = pooled == null ? this.token : pooled.getValue();
+        String authorization = pooled == null ? this.authorization : pooled.getAuthorization();
+        
+        GithubRateLimiter limiter = rateLimiter;
+        GithubListener listener = this.listener;
+        long start = listener == null ? 0 : System.nanoTime();
+        GithubRetryPolicy retry = body == null ? retryPolicy : null;
+        for (int attempt = 0;; attempt++) {
+            if (limiter != null) limiter.acquire(token, resource);
+            
+            GithubResponse r;
+            try {
+                String a = authorization;
+                r = retry != null && retry.isHedging() && resource == null
+                        ? retry.hedge(() -> transport.send(path, headers, a, body))
+                        : transport.send(path, headers, authorization, body);
+            } catch (RuntimeException e) {
+                failed(listener, start, path, headers, body, resource, e, attempt);
+                long delay = retry == null ? -1 : retry.retryDelay(null, attempt);
+                if (delay < 0 || !sleep(delay)) throw e;
+                continue;
+            }
+            if (pooled != null) pooled.update(resource, r);
+            if (limiter != null) limiter.update(token, resource, r);
+            // the message of a 403 tells a secondary rate limit apart from missing permissions
+            if (limiter != null && r.getStatus() == FORBIDDEN) r = GithubBufferedResponse.of(r);
+            
+            if (pooled != null && GithubRateLimit.isExhausted(r) && pool.hasBudget(resource) && attempt < pool.size()) {
+                discard(r);
+                pooled = pool.acquire(resource);
+                token = pooled.getValue();
+                authorization = pooled.getAuthorization();
+                continue;
+            }
+            
+            long delay = limiter == null ? -1 : limiter.retryDelay(r, attempt);
+            if (delay < 0 && retry != null) delay = retry.retryDelay(r, attempt);
+            if (delay < 0 || !sleep(delay)) return called(listener, start, path, headers, body, resource, r, attempt);
+            
+            discard(r);
+            if (pooled != null) {
+                pooled = pool.acquire(resource);
+                token = pooled.getValue();
+                authorization = pooled.getAuthorization();
+            }
+        }
+    }
+    
+    private static boolean sleep(long delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private GithubResponse called(GithubListener listener, long start, URLPath path, Map<HTTPHeader, String> headers, String body,
+            String resource, GithubResponse r, int attempt) {
+        if (listener == null) return r;
+        
+        String url = path.toString();
+        notify(listener, new GithubCall(body == null ? "GET" : "POST", url, GithubCall.endpoint(api, raw, url), resource, r.getStatus(),
+                System.nanoTime() - start, header(r, GithubHeaders.CONTENT_LENGTH), attempt + 1, isConditional(headers),
+                header(r, GithubHeaders.RATE_LIMIT_REMAINING), null));
+        return r;
+    }
+    
+    private void failed(GithubListener listener, long start, URLPath path, Map<HTTPHeader, String> headers, String body,
+            String resource, RuntimeException e, int attempt) {
+        if (listener == null) return;
+        
+        String url = path.toString();
+        notify(listener, new GithubCall(body == null ? "GET" : "POST", url, GithubCall.endpoint(api, raw, url), resource, 0,
+                System.nanoTime() - start, -1, attempt + 1, isConditional(headers), -1, e));
+    }
+    
+    private static boolean isConditional(Map<HTTPHeader, String> headers) {
+        return headers.containsKey(GithubHeaders.IF_NONE_MATCH) || headers.containsKey(GithubHeaders.IF_MODIFIED_SINCE);
+    }
+    
+    private static void notify(GithubListener listener, GithubCall call) {
+        try {
+            listener.onCall(call);
+        } catch (RuntimeException e) {
+            // a failing observer must not fail the call it observes, nor leak its response
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+    
+    private static long header(GithubResponse r, HTTPHeader header) {
+        String value = GithubHeaders.get(r, header);
+        if (value == null) return -1;
+        
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
         }
-        return r.send();
     }
 }
@@ -0,0 +1,419 @@
+package fluff.github;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A streaming reader over the tarball or zipball archive of a branch.
+ * <p>
+ * The archive is read straight from the response body, one entry at a time, so it is never held
+ * in memory as a whole. The content of an entry must be consumed before moving to the next one.
+ * Entry paths are relative to the repository root, without the top-level directory GitHub adds
+ * to its archives.
+ */
+public class GithubArchive implements Iterator<GithubArchive.Entry>, AutoCloseable {
+
+    /**
+     * The archive formats offered by GitHub.
+     */
+    public enum Format {
+
+        /**
+         * A gzip compressed tar archive.
+         */
+        TARBALL("tarball"),
+
+        /**
+         * A zip archive.
+         */
+        ZIPBALL("zipball");
+
+        private final String endpoint;
+
+        Format(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Returns the API endpoint name of the format.
+         *
+         * @return the endpoint name
+         */
+        public String getEndpoint() {
+            return endpoint;
+        }
+    }
+
+    /**
+     * The estimated cost of one extra request, in bytes of transferred content, used to choose between
+     * an archive and per-file downloads.
+     */
+    public static final long REQUEST_COST = 64 * 1024;
+
+    /**
+     * The estimated compressed size of an archive relative to the size of its files.
+     */
+    public static final double COMPRESSION_RATIO = 0.35;
+
+    private static final int BLOCK = 512;
+
+    private final InputStream in;
+    private final Format format;
+
+    private Entry next;
+    private EntryStream current;
+    private boolean done;
+
+    /**
+     * Constructs a new GithubArchive reading from the specified stream.
+     *
+     * @param in the raw archive stream
+     * @param format the format of the archive
+     */
+    GithubArchive(InputStream in, Format format) {
+        this.format = format;
+        try {
+            this.in = format == Format.TARBALL
+                    ? new GZIPInputStream(new BufferedInputStream(in, 64 * 1024), 64 * 1024)
+                    : new ZipInputStream(new BufferedInputStream(in, 64 * 1024));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (done) return false;
+
+        try {
+            next = format == Format.TARBALL ? readTar() : readZip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (next == null) done = true;
+        return next != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Entry entry = next;
+        next = null;
+        return entry;
+    }
+
+    /**
+     * Extracts the files of the archive to a local directory, one entry at a time.
+     *
+     * @param target the local directory to extract to
+     * @param filter the predicate tested against each file's path relative to the repository root
+     * @return the number of extracted files
+     */
+    public int extractTo(Path target, Predicate<String> filter) {
+        Path root = target.toAbsolutePath().normalize();
+        int count = 0;
+        try {
+            while (hasNext()) {
+                Entry entry = next();
+                if (entry.isDirectory() || entry.getLinkTarget() != null || !filter.test(entry.getPath())) continue;
+
+                Path file = root.resolve(entry.getPath()).normalize();
+                if (!file.startsWith(root)) continue;
+
+                Files.createDirectories(file.getParent());
+                Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+                try {
+                    Files.copy(entry.getInputStream(), tmp, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    /**
+     * Extracts all files of the archive to a local directory, one entry at a time.
+     *
+     * @param target the local directory to extract to
+     * @return the number of extracted files
+     */
+    public int extractTo(Path target) {
+        return extractTo(target, path -> true);
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        next = null;
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Estimates whether downloading the whole archive is cheaper than downloading the requested files one by one.
+     * <p>
+     * Per-file downloads cost one request per file plus the size of the files, while the archive costs a
+     * single request plus the compressed size of every file of the branch.
+     *
+     * @param requested the tree entries of the files to download
+     * @param tree the tree entries of the whole branch
+     * @return true if the archive should be used, false otherwise
+     */
+    public static boolean prefersArchive(Collection<GithubTreeEntry> requested, Collection<GithubTreeEntry> tree) {
+        long requestedBytes = 0;
+        long requestedFiles = 0;
+        for (GithubTreeEntry entry : requested) {
+            if (!entry.isBlob()) continue;
+
+            requestedBytes += entry.getSize();
+            requestedFiles++;
+        }
+        if (requestedFiles <= 1) return false;
+
+        long totalBytes = 0;
+        for (GithubTreeEntry entry : tree) {
+            if (entry.isBlob()) totalBytes += entry.getSize();
+        }
+
+        long perFile = requestedFiles * REQUEST_COST + requestedBytes;
+        long archive = REQUEST_COST + (long) (totalBytes * COMPRESSION_RATIO);
+        return archive < perFile;
+    }
+
+    private Entry readTar() throws IOException {
+        if (current != null) {
+            current.skipRest();
+            in.skipNBytes(padding(current.size));
+            current = null;
+        }
+
+        String longName = null;
+        byte[] header = new byte[BLOCK];
+        while (true) {
+            if (in.readNBytes(header, 0, BLOCK) < BLOCK || isZero(header)) return null;
+
+            String name = string(header, 0, 100);
+            long size = number(header, 124, 12);
+            char type = (char) header[156];
+            String linkName = string(header, 157, 100);
+
+            String prefix = string(header, 345, 155);
+            if (string(header, 257, 5).equals("ustar") && !prefix.isEmpty()) name = prefix + "/" + name;
+
+            if (type == 'x' || type == 'L') {
+                String data = new String(in.readNBytes((int) size), StandardCharsets.UTF_8);
+                in.skipNBytes(padding(size));
+
+                longName = type == 'L' ? data.replace("\0", "") : paxPath(data, longName);
+                continue;
+            }
+            if (type == 'g') {
+                in.skipNBytes(size + padding(size));
+                continue;
+            }
+            if (longName != null) {
+                name = longName;
+                longName = null;
+            }
+
+            String path = strip(name);
+            if (path.isEmpty()) {
+                in.skipNBytes(size + padding(size));
+                continue;
+            }
+
+            current = new EntryStream(in, size);
+            return new Entry(path, size, type == '5', type == '2' ? linkName : null, current);
+        }
+    }
+
+    private Entry readZip() throws IOException {
+        ZipInputStream zip = (ZipInputStream) in;
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String path = strip(entry.getName());
+            if (path.isEmpty()) continue;
+
+            return new Entry(path, entry.getSize(), entry.isDirectory(), null, new EntryStream(zip, Long.MAX_VALUE));
+        }
+        return null;
+    }
+
+    private static String strip(String name) {
+        int slash = name.indexOf('/');
+        String path = slash < 0 ? "" : name.substring(slash + 1);
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static String paxPath(String data, String fallback) {
+        for (String record : data.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space < 0) continue;
+
+            String keyValue = record.substring(space + 1);
+            if (keyValue.startsWith("path=")) return keyValue.substring(5);
+        }
+        return fallback;
+    }
+
+    private static String string(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) end++;
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8).trim();
+    }
+
+    private static long number(byte[] header, int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7F;
+            for (int i = 1; i < length; i++) {
+                value = (value << 8) | (header[offset + i] & 0xFF);
+            }
+            return value;
+        }
+
+        String octal = string(header, offset, length);
+        return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+    }
+
+    private static long padding(long size) {
+        return (BLOCK - size % BLOCK) % BLOCK;
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * An entry of a {@link GithubArchive}.
+     */
+    public static class Entry {
+
+        private final String path;
+        private final long size;
+        private final boolean directory;
+        private final String linkTarget;
+        private final InputStream content;
+
+        Entry(String path, long size, boolean directory, String linkTarget, InputStream content) {
+            this.path = path;
+            this.size = size;
+            this.directory = directory;
+            this.linkTarget = linkTarget;
+            this.content = content;
+        }
+
+        /**
+         * Returns the path of the entry relative to the repository root.
+         *
+         * @return the entry's path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the size of the entry's content in bytes.
+         *
+         * @return the entry's size, or -1 if the archive does not record it
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Checks if the entry is a directory.
+         *
+         * @return true if the entry is a directory, false otherwise
+         */
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        /**
+         * Returns the target of the entry if it is a symbolic link.
+         *
+         * @return the link target, or null if the entry is not a symbolic link
+         */
+        public String getLinkTarget() {
+            return linkTarget;
+        }
+
+        /**
+         * Returns the content of the entry. The stream is only valid until the next entry is read,
+         * and closing it does not close the archive.
+         *
+         * @return the entry's content
+         */
+        public InputStream getInputStream() {
+            return content;
+        }
+    }
+
+    private static final class EntryStream extends InputStream {
+
+        private final InputStream in;
+        private final long size;
+        private long remaining;
+
+        EntryStream(InputStream in, long size) {
+            this.in = in;
+            this.size = size;
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+
+            int b = in.read();
+            if (b < 0) remaining = 0;
+            else remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read < 0) remaining = 0;
+            else remaining -= read;
+            return read;
+        }
+
+        void skipRest() throws IOException {
+            if (remaining > 0) in.skipNBytes(remaining);
+            remaining = 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
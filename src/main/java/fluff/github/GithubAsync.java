@@ -0,0 +1,291 @@
+package fluff.github;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * An asynchronous view of a {@link Github} client.
+ * <p>
+ * Every request is executed on the configured executor, virtual threads by default, and the number
+ * of requests in flight at the same time is bounded per instance. Callers exceeding the bound are
+ * queued until a running request completes.
+ */
+public class GithubAsync {
+
+    /**
+     * The default maximum number of requests in flight.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private final Github gh;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final Semaphore permits;
+
+    /**
+     * Constructs a new GithubAsync instance with the specified executor and in-flight bound.
+     *
+     * @param gh the Github client instance
+     * @param executor the executor running the requests
+     * @param maxInFlight the maximum number of requests in flight
+     */
+    public GithubAsync(Github gh, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive");
+
+        this.gh = gh;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight, true);
+    }
+
+    /**
+     * Constructs a new GithubAsync instance running requests on virtual threads with the specified in-flight bound.
+     *
+     * @param gh the Github client instance
+     * @param maxInFlight the maximum number of requests in flight
+     */
+    public GithubAsync(Github gh, int maxInFlight) {
+        this(gh, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-async-", 0).factory()), maxInFlight);
+    }
+
+    /**
+     * Constructs a new GithubAsync instance running requests on virtual threads with the default in-flight bound.
+     *
+     * @param gh the Github client instance
+     */
+    public GithubAsync(Github gh) {
+        this(gh, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Asynchronously retrieves information about a GitHub user.
+     *
+     * @param userName the username of the GitHub user
+     * @return a future completed with the user, or null if the user does not exist
+     * @see Github#user(String)
+     */
+    public CompletableFuture<GithubUser> user(String userName) {
+        return supply(() -> gh.user(userName));
+    }
+
+    /**
+     * Asynchronously retrieves information about a GitHub repository.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return a future completed with the repository, or null if the repository does not exist
+     * @see Github#repository(String, String)
+     */
+    public CompletableFuture<GithubRepository> repository(String userName, String repoName) {
+        return supply(() -> gh.repository(userName, repoName));
+    }
+
+    /**
+     * Asynchronously retrieves the repositories of a GitHub user.
+     *
+     * @param userName the user name of the GitHub user
+     * @return a future completed with the user's repositories, or null if the user does not exist
+     * @see Github#repositories(String)
+     */
+    public CompletableFuture<List<GithubRepository>> repositories(String userName) {
+        return supply(() -> gh.repositories(userName));
+    }
+
+    /**
+     * Asynchronously retrieves information about a branch in a GitHub repository.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     * @return a future completed with the branch, or null if the branch does not exist
+     * @see Github#branch(String, String, String)
+     */
+    public CompletableFuture<GithubBranch> branch(String userName, String repoName, String branchName) {
+        return supply(() -> gh.branch(userName, repoName, branchName));
+    }
+
+    /**
+     * Asynchronously retrieves the branches of a GitHub repository.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @return a future completed with the branches, or null if the repository does not exist
+     * @see Github#branches(String, String)
+     */
+    public CompletableFuture<List<GithubBranch>> branches(String userName, String repoName) {
+        return supply(() -> gh.branches(userName, repoName));
+    }
+
+    /**
+     * Asynchronously retrieves information about a file in a GitHub repository.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch (can be null)
+     * @param filePath the path to the file
+     * @return a future completed with the file, or null if the file does not exist
+     * @see Github#file(String, String, String, String)
+     */
+    public CompletableFuture<GithubFile> file(String userName, String repoName, String branchName, String filePath) {
+        return supply(() -> gh.file(userName, repoName, branchName, filePath));
+    }
+
+    /**
+     * Asynchronously retrieves the files in a directory of a GitHub repository.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch (can be null)
+     * @param dirPath the path to the directory
+     * @return a future completed with the files, or null if the directory does not exist
+     * @see Github#files(String, String, String, String)
+     */
+    public CompletableFuture<List<GithubFile>> files(String userName, String repoName, String branchName, String dirPath) {
+        return supply(() -> gh.files(userName, repoName, branchName, dirPath));
+    }
+
+    /**
+     * Asynchronously retrieves a specific repository of a user.
+     *
+     * @param user the user
+     * @param repoName the name of the repository
+     * @return a future completed with the repository, or null if it does not exist
+     * @see GithubUser#repository(String)
+     */
+    public CompletableFuture<GithubRepository> repository(GithubUser user, String repoName) {
+        return supply(() -> user.repository(repoName));
+    }
+
+    /**
+     * Asynchronously retrieves all public repositories of a user.
+     *
+     * @param user the user
+     * @return a future completed with the user's repositories
+     * @see GithubUser#repositories()
+     */
+    public CompletableFuture<List<GithubRepository>> repositories(GithubUser user) {
+        return supply(user::repositories);
+    }
+
+    /**
+     * Asynchronously retrieves a specific branch of a repository.
+     *
+     * @param repository the repository
+     * @param branchName the name of the branch
+     * @return a future completed with the branch, or null if it does not exist
+     * @see GithubRepository#branch(String)
+     */
+    public CompletableFuture<GithubBranch> branch(GithubRepository repository, String branchName) {
+        return supply(() -> repository.branch(branchName));
+    }
+
+    /**
+     * Asynchronously retrieves all branches of a repository.
+     *
+     * @param repository the repository
+     * @return a future completed with the repository's branches
+     * @see GithubRepository#branches()
+     */
+    public CompletableFuture<List<GithubBranch>> branches(GithubRepository repository) {
+        return supply(repository::branches);
+    }
+
+    /**
+     * Asynchronously retrieves a specific file in a branch.
+     *
+     * @param branch the branch
+     * @param filePath the path to the file
+     * @return a future completed with the file, or null if it does not exist
+     * @see GithubBranch#file(String)
+     */
+    public CompletableFuture<GithubFile> file(GithubBranch branch, String filePath) {
+        return supply(() -> branch.file(filePath));
+    }
+
+    /**
+     * Asynchronously retrieves all files in a directory of a branch.
+     *
+     * @param branch the branch
+     * @param dirPath the path to the directory
+     * @return a future completed with the files
+     * @see GithubBranch#files(String)
+     */
+    public CompletableFuture<List<GithubFile>> files(GithubBranch branch, String dirPath) {
+        return supply(() -> branch.files(dirPath));
+    }
+
+    /**
+     * Asynchronously retrieves a specific file within the directory of a file.
+     *
+     * @param file the file
+     * @param subPath the sub path to the file relative to the file's path
+     * @return a future completed with the file, or null if it does not exist
+     * @see GithubFile#file(String)
+     */
+    public CompletableFuture<GithubFile> file(GithubFile file, String subPath) {
+        return supply(() -> file.file(subPath));
+    }
+
+    /**
+     * Asynchronously retrieves all files within a sub path of a file.
+     *
+     * @param file the file
+     * @param subPath the sub path to the files relative to the file's path
+     * @return a future completed with the files
+     * @see GithubFile#files(String)
+     */
+    public CompletableFuture<List<GithubFile>> files(GithubFile file, String subPath) {
+        return supply(() -> file.files(subPath));
+    }
+
+    /**
+     * Asynchronously downloads a raw file.
+     *
+     * @param rawFile the raw file
+     * @return a future completed with the response
+     * @see GithubRawFile#response()
+     */
+    public CompletableFuture<GithubResponse> GET(GithubRawFile rawFile) {
+        return supply(rawFile::response);
+    }
+
+    /**
+     * Runs an arbitrary blocking call against the client under the same executor and in-flight bound.
+     *
+     * @param <T> the result type
+     * @param call the blocking call
+     * @return a future completed with the call's result
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     *
+     * @return the number of requests in flight
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Returns the maximum number of requests in flight.
+     *
+     * @return the maximum number of requests in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,481 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binds API responses to model objects straight from the response stream.
+ * <p>
+ * Only the fields each model keeps are read, every other field is skipped by the
+ * {@link GithubJsonReader} without building a JSON tree.
+ *
+ * @param <T> the model type
+ */
+@FunctionalInterface
+interface GithubBinder<T> {
+
+    /**
+     * Binds the next JSON object of a reader.
+     *
+     * @param reader the reader positioned at the object
+     * @return the bound model
+     */
+    T bind(GithubJsonReader reader) throws IOException;
+
+    /**
+     * Binds a whole response body holding a single object.
+     *
+     * @param in the response body
+     * @return the bound model
+     */
+    default T read(InputStream in) {
+        try (GithubJsonReader reader = new GithubJsonReader(in)) {
+            return bind(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Binds a whole response body holding an array of objects. The list is unmodifiable, so it can be cached
+     * and shared between callers.
+     *
+     * @param in the response body
+     * @return the unmodifiable list of bound models
+     */
+    default List<T> readArray(InputStream in) {
+        try (GithubJsonReader reader = new GithubJsonReader(in)) {
+            List<T> list = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(bind(reader));
+            }
+            reader.endArray();
+            return Collections.unmodifiableList(list);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Binds the array held by one field of a response body holding an object, skipping every other field.
+     * The list is unmodifiable, so it can be cached and shared between callers.
+     *
+     * @param in the response body
+     * @param name the name of the field holding the array
+     * @return the unmodifiable list of bound models, empty if the object has no such field
+     */
+    default List<T> readArray(InputStream in, String name) {
+        try (GithubJsonReader reader = new GithubJsonReader(in)) {
+            List<T> list = new ArrayList<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(name) || reader.peekNull()) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    list.add(bind(reader));
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+            return Collections.unmodifiableList(list);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the binder of {@link GithubUser} objects.
+     *
+     * @param gh the Github client instance
+     * @return the binder
+     */
+    static GithubBinder<GithubUser> user(Github gh) {
+        return reader -> {
+            String userName = null;
+            long id = 0;
+            String displayName = null;
+            String location = null;
+            String avatarUrl = null;
+            String bio = null;
+            int reposSize = 0;
+            int gistsSize = 0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "login" -> userName = reader.nextString();
+                    case "id" -> id = reader.nextLong();
+                    case "name" -> displayName = reader.nextString();
+                    case "location" -> location = reader.nextString();
+                    case "avatar_url" -> avatarUrl = reader.nextString();
+                    case "bio" -> bio = reader.nextString();
+                    case "public_repos" -> reposSize = reader.nextInt();
+                    case "public_gists" -> gistsSize = reader.nextInt();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubUser(gh, userName, id, displayName, location, avatarUrl, bio, reposSize, gistsSize);
+        };
+    }
+
+    /**
+     * Returns the binder of {@link GithubRepository} objects.
+     *
+     * @param gh the Github client instance
+     * @return the binder
+     */
+    static GithubBinder<GithubRepository> repository(Github gh) {
+        return reader -> {
+            String userName = null;
+            String repoName = null;
+            long id = 0;
+            String fullName = null;
+            String description = null;
+            String homepage = null;
+            String defaultBranch = null;
+            boolean archived = false;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "owner" -> userName = field(reader, "login");
+                    case "name" -> repoName = reader.nextString();
+                    case "id" -> id = reader.nextLong();
+                    case "full_name" -> fullName = reader.nextString();
+                    case "description" -> description = reader.nextString();
+                    case "homepage" -> homepage = reader.nextString();
+                    case "default_branch" -> defaultBranch = reader.nextString();
+                    case "archived" -> archived = reader.nextBoolean();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubRepository(gh, userName, repoName, id, fullName, description, homepage, defaultBranch, archived);
+        };
+    }
+
+    /**
+     * Returns the binder of {@link GithubBranch} objects.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @return the binder
+     */
+    static GithubBinder<GithubBranch> branch(Github gh, String userName, String repoName) {
+        return reader -> {
+            String branchName = null;
+            String sha = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> branchName = reader.nextString();
+                    case "commit" -> sha = field(reader, "sha");
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubBranch(gh, userName, repoName, branchName, sha);
+        };
+    }
+
+    /**
+     * Returns the binder of {@link GithubFile} objects.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param branchName the branch name
+     * @return the binder
+     */
+    static GithubBinder<GithubFile> file(Github gh, String userName, String repoName, String branchName) {
+        return reader -> {
+            String filePath = null;
+            String fileName = null;
+            String type = null;
+            String downloadUrl = null;
+            String sha = null;
+            long size = 0;
+            String content = null;
+            String encoding = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "path" -> filePath = reader.nextString();
+                    case "name" -> fileName = reader.nextString();
+                    case "type" -> type = reader.nextString();
+                    case "download_url" -> downloadUrl = reader.nextString();
+                    case "sha" -> sha = reader.nextString();
+                    case "size" -> size = reader.nextLong();
+                    case "content" -> content = reader.nextString();
+                    case "encoding" -> encoding = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubFile(gh, userName, repoName, branchName, filePath, fileName, type, downloadUrl, sha, size,
+                    "base64".equals(encoding) ? content : null);
+        };
+    }
+
+    /**
+     * Returns the binder of the {@link GithubFile} objects listed by the code search API. The files point at
+     * the commit that was indexed, since code search results carry no branch.
+     *
+     * @param gh the Github client instance
+     * @return the binder
+     */
+    static GithubBinder<GithubFile> codeResult(Github gh) {
+        return reader -> {
+            String userName = null;
+            String repoName = null;
+            String filePath = null;
+            String fileName = null;
+            String sha = null;
+            String url = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> fileName = reader.nextString();
+                    case "path" -> filePath = reader.nextString();
+                    case "sha" -> sha = reader.nextString();
+                    case "url" -> url = reader.nextString();
+                    case "repository" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "name" -> repoName = reader.nextString();
+                                case "owner" -> userName = field(reader, "login");
+                                default -> reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            int ref = url == null ? -1 : url.indexOf("?ref=");
+            String commit = ref < 0 ? null : url.substring(ref + "?ref=".length());
+            String downloadUrl = commit == null ? null : gh.raw.derive(userName + "/" + repoName + "/" + commit + "/" + filePath).toString();
+            return new GithubFile(gh, userName, repoName, commit, filePath, fileName, "file", downloadUrl, sha, 0, null);
+        };
+    }
+
+    /**
+     * Returns the binder of {@link GithubCommit} objects.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @return the binder
+     */
+    static GithubBinder<GithubCommit> commit(Github gh, String userName, String repoName) {
+        return reader -> {
+            String sha = null;
+            String message = null;
+            String authorName = null;
+            String authorEmail = null;
+            String authorLogin = null;
+            String authorDate = null;
+            String commitDate = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "sha" -> sha = reader.nextString();
+                    case "author" -> authorLogin = field(reader, "login");
+                    case "commit" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "message" -> message = reader.nextString();
+                                case "committer" -> commitDate = field(reader, "date");
+                                case "author" -> {
+                                    reader.beginObject();
+                                    while (reader.hasNext()) {
+                                        switch (reader.nextName()) {
+                                            case "name" -> authorName = reader.nextString();
+                                            case "email" -> authorEmail = reader.nextString();
+                                            case "date" -> authorDate = reader.nextString();
+                                            default -> reader.skipValue();
+                                        }
+                                    }
+                                    reader.endObject();
+                                }
+                                default -> reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubCommit(gh, userName, repoName, sha, message, authorName, authorEmail, authorLogin,
+                    instant(authorDate), instant(commitDate));
+        };
+    }
+
+    /**
+     * Returns the binder of {@link GithubRelease} objects, including their assets.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @return the binder
+     */
+    static GithubBinder<GithubRelease> release(Github gh, String userName, String repoName) {
+        GithubBinder<GithubReleaseAsset> asset = asset(gh, userName, repoName);
+        return reader -> {
+            long id = 0;
+            String tagName = null;
+            String name = null;
+            boolean draft = false;
+            boolean prerelease = false;
+            String publishedAt = null;
+            List<GithubReleaseAsset> assets = new ArrayList<>();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = reader.nextLong();
+                    case "tag_name" -> tagName = reader.nextString();
+                    case "name" -> name = reader.nextString();
+                    case "draft" -> draft = reader.nextBoolean();
+                    case "prerelease" -> prerelease = reader.nextBoolean();
+                    case "published_at" -> publishedAt = reader.nextString();
+                    case "assets" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            assets.add(asset.bind(reader));
+                        }
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubRelease(userName, repoName, id, tagName, name, draft, prerelease, instant(publishedAt), assets);
+        };
+    }
+
+    /**
+     * Returns the binder of {@link GithubReleaseAsset} objects.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @return the binder
+     */
+    static GithubBinder<GithubReleaseAsset> asset(Github gh, String userName, String repoName) {
+        return reader -> {
+            long id = 0;
+            String name = null;
+            String contentType = null;
+            long size = 0;
+            String downloadUrl = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = reader.nextLong();
+                    case "name" -> name = reader.nextString();
+                    case "content_type" -> contentType = reader.nextString();
+                    case "size" -> size = reader.nextLong();
+                    case "browser_download_url" -> downloadUrl = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubReleaseAsset(gh, userName, repoName, id, name, contentType, size, downloadUrl);
+        };
+    }
+
+    /**
+     * Returns the binder of the {@link GithubChange} objects listed by the compare API.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param head the commit the changes lead to
+     * @return the binder
+     */
+    static GithubBinder<GithubChange> change(Github gh, String userName, String repoName, String head) {
+        return reader -> {
+            String path = null;
+            String previousPath = null;
+            String status = null;
+            String sha = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "filename" -> path = reader.nextString();
+                    case "previous_filename" -> previousPath = reader.nextString();
+                    case "status" -> status = reader.nextString();
+                    case "sha" -> sha = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new GithubChange(gh, userName, repoName, head, path, previousPath, GithubChange.Status.of(status), sha);
+        };
+    }
+
+    /**
+     * Reads a single string field of a nested object, skipping the rest of the object.
+     *
+     * @param reader the reader positioned at the nested object
+     * @param name the name of the field
+     * @return the field value, or null if the object is null or has no such field
+     */
+    private static String field(GithubJsonReader reader, String name) throws IOException {
+        if (reader.peekNull()) {
+            reader.skipValue();
+            return null;
+        }
+
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(name)) value = reader.nextString();
+            else reader.skipValue();
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Parses an ISO 8601 timestamp as sent by the GitHub API.
+     *
+     * @param date the timestamp
+     * @return the instant, or null if the timestamp is null
+     */
+    private static Instant instant(String date) {
+        return date == null ? null : Instant.parse(date);
+    }
+}
@@ -0,0 +1,334 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A persistent, content-addressed store of git blobs on the local disk.
+ * <p>
+ * Blobs are stored as files named after their git SHA, so identical files of different branches
+ * and repositories are stored, and downloaded, only once. The total size of the store is bounded
+ * and the least recently used blobs are evicted first.
+ */
+public class GithubBlobStore {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path dir;
+    private final long maxBytes;
+    private final boolean verifyOnRead;
+    private final boolean memoryMapped;
+
+    private final Map<String, Long> index = new LinkedHashMap<>(16, 0.75F, true);
+    private long totalBytes;
+
+    /**
+     * Constructs a new GithubBlobStore in the specified directory, indexing the blobs already stored there.
+     *
+     * @param dir the directory of the store
+     * @param maxBytes the maximum total size of the stored blobs
+     * @param verifyOnRead whether blobs are re-hashed on every read and discarded if they are corrupted
+     * @param memoryMapped whether blobs are memory-mapped on read instead of copied to the heap
+     */
+    public GithubBlobStore(Path dir, long maxBytes, boolean verifyOnRead, boolean memoryMapped) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.verifyOnRead = verifyOnRead;
+        this.memoryMapped = memoryMapped;
+
+        try {
+            Files.createDirectories(dir);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Constructs a new GithubBlobStore in the specified directory that copies blobs to the heap without verifying them.
+     *
+     * @param dir the directory of the store
+     * @param maxBytes the maximum total size of the stored blobs
+     */
+    public GithubBlobStore(Path dir, long maxBytes) {
+        this(dir, maxBytes, false, false);
+    }
+
+    /**
+     * Reads a blob from the store.
+     *
+     * @param sha the git SHA of the blob
+     * @return the content of the blob, or null if it is not stored or failed verification
+     */
+    public ByteBuffer read(String sha) {
+        synchronized (index) {
+            if (index.get(sha) == null) return null;
+        }
+
+        Path file = path(sha);
+        try {
+            ByteBuffer content;
+            if (memoryMapped) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                content = ByteBuffer.wrap(Files.readAllBytes(file));
+            }
+
+            if (verifyOnRead && !sha.equals(sha(content.duplicate()))) {
+                remove(sha);
+                return null;
+            }
+            return content;
+        } catch (IOException e) {
+            remove(sha);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the file of a stored blob, marking it as recently used.
+     *
+     * @param sha the git SHA of the blob
+     * @return the file of the blob, or null if it is not stored
+     */
+    Path file(String sha) {
+        synchronized (index) {
+            if (index.get(sha) == null) return null;
+        }
+        return path(sha);
+    }
+
+    /**
+     * Stores a blob, unless its content does not match the SHA.
+     *
+     * @param sha the git SHA of the blob
+     * @param content the content of the blob
+     * @return true if the blob is stored, false otherwise
+     */
+    public boolean write(String sha, byte[] content) {
+        if (!sha.equals(sha(ByteBuffer.wrap(content)))) return false;
+        if (contains(sha)) return true;
+
+        Path file = path(sha);
+        try {
+            Files.createDirectories(file.getParent());
+
+            Path tmp = Files.createTempFile(file.getParent(), sha, ".tmp");
+            try {
+                Files.write(tmp, content);
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        stored(sha, content.length);
+        return true;
+    }
+
+    /**
+     * Stores a blob from a file whose content was already verified against the SHA. The file is copied
+     * rather than linked, so changing it afterwards does not change the stored blob.
+     *
+     * @param sha the git SHA of the blob
+     * @param content the file holding the content of the blob
+     * @return true if the blob is stored, false otherwise
+     */
+    boolean write(String sha, Path content) {
+        if (contains(sha)) return true;
+
+        Path file = path(sha);
+        long size;
+        try {
+            Files.createDirectories(file.getParent());
+
+            Path tmp = Files.createTempFile(file.getParent(), sha, ".tmp");
+            try {
+                Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+                size = Files.size(tmp);
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        stored(sha, size);
+        return true;
+    }
+
+    /**
+     * Checks if a blob is stored.
+     *
+     * @param sha the git SHA of the blob
+     * @return true if the blob is stored, false otherwise
+     */
+    public boolean contains(String sha) {
+        synchronized (index) {
+            return index.containsKey(sha);
+        }
+    }
+
+    /**
+     * Removes a blob from the store.
+     *
+     * @param sha the git SHA of the blob
+     */
+    public void remove(String sha) {
+        synchronized (index) {
+            Long size = index.remove(sha);
+            if (size != null) totalBytes -= size;
+        }
+        try {
+            Files.deleteIfExists(path(sha));
+        } catch (IOException e) {}
+    }
+
+    /**
+     * Returns the total size of the stored blobs.
+     *
+     * @return the size in bytes
+     */
+    public long getTotalBytes() {
+        synchronized (index) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * Returns the maximum total size of the stored blobs.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the directory of the store.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return dir;
+    }
+
+    private void stored(String sha, long size) {
+        synchronized (index) {
+            Long previous = index.put(sha, size);
+            if (previous != null) totalBytes -= previous;
+            totalBytes += size;
+            evict();
+        }
+    }
+
+    private Path path(String sha) {
+        return dir.resolve(sha.substring(0, 2)).resolve(sha);
+    }
+
+    private void evict() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            it.remove();
+        }
+
+        for (String sha : evicted) {
+            try {
+                Files.deleteIfExists(path(sha));
+            } catch (IOException e) {}
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir, 2)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparing(p -> {
+                        try {
+                            return Files.getLastModifiedTime(p);
+                        } catch (IOException e) {
+                            return null;
+                        }
+                    }, Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .toList();
+        }
+
+        synchronized (index) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                index.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Computes the git blob SHA of a content, the SHA-1 of {@code "blob <size>\0"} followed by the content.
+     *
+     * @param content the content
+     * @return the hex encoded SHA
+     */
+    public static String sha(ByteBuffer content) {
+        MessageDigest digest = digest(content.remaining());
+        digest.update(content);
+        return HEX.formatHex(digest.digest());
+    }
+
+    /**
+     * Computes the git blob SHA of a file, streaming its content.
+     *
+     * @param file the file
+     * @return the hex encoded SHA
+     * @throws IOException if the file cannot be read
+     */
+    public static String sha(Path file) throws IOException {
+        MessageDigest digest = digest(Files.size(file));
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static MessageDigest digest(long size) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("blob " + size + "\0").getBytes(StandardCharsets.US_ASCII));
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
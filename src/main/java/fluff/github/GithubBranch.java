@@ -1,8 +1,9 @@
 package fluff.github;
 
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
-
-import fluff.json.JSONObject;
+import java.util.stream.Stream;
 
 /**
  * Represents a branch in a GitHub repository and provides methods to interact with it.
@@ -14,22 +15,25 @@ public class GithubBranch {
     private final String userName;
     private final String repoName;
     private final String branchName;
+    private final String sha;
     
     /**
-     * Constructs a GithubBranch instance from a JSONObject.
+     * Constructs a GithubBranch instance from its fields.
      *
      * @param gh the Github client instance
      * @param userName the user name that owns the repository
      * @param repoName the repository name
-     * @param json the JSON object containing branch information
+     * @param branchName the branch name
+     * @param sha the SHA of the head commit (can be null if unknown)
      */
-    GithubBranch(Github gh, String userName, String repoName, JSONObject json) {
+    GithubBranch(Github gh, String userName, String repoName, String branchName, String sha) {
         this.gh = gh;
         
         this.userName = userName;
         this.repoName = repoName;
         
-        this.branchName = json.getString("name");
+        this.branchName = branchName;
+        this.sha = sha;
     }
     
     /**
@@ -52,6 +56,153 @@ public class GithubBranch {
         return gh.files(userName, repoName, branchName, dirPath);
     }
     
+    /**
+     * Retrieves all entries of the branch, recursively, with a single git trees API request.
+     *
+     * @return a list of GithubTreeEntry objects representing every file and directory of the branch
+     */
+    public List<GithubTreeEntry> tree() {
+        return gh.tree(userName, repoName, branchName, null);
+    }
+    
+    /**
+     * Retrieves all entries under the specified dir path of the branch, recursively, with a single git trees API request.
+     *
+     * @param dirPath the path to the directory
+     * @return a list of GithubTreeEntry objects with paths relative to the repository root, or null if the directory does not exist
+     */
+    public List<GithubTreeEntry> tree(String dirPath) {
+        return gh.tree(userName, repoName, branchName, dirPath);
+    }
+    
+    /**
+     * Opens the archive of the branch as a stream of entries, fetched with a single request.
+     *
+     * @param format the archive format
+     * @return a GithubArchive reading the archive, or null if the branch does not exist
+     */
+    public GithubArchive archive(GithubArchive.Format format) {
+        return gh.archive(userName, repoName, branchName, format);
+    }
+    
+    /**
+     * Opens the tarball of the branch as a stream of entries, fetched with a single request.
+     *
+     * @return a GithubArchive reading the tarball, or null if the branch does not exist
+     */
+    public GithubArchive archive() {
+        return archive(GithubArchive.Format.TARBALL);
+    }
+    
+    /**
+     * Mirrors the files of the branch to a local directory, keeping their paths relative to the repository root.
+     * <p>
+     * The files are read at the {@link #getSHA() head} of the branch as retrieved. Local files whose git blob
+     * SHA already matches the branch are skipped, changed files are downloaded in parallel and moved into
+     * place atomically, and files that no longer exist in the branch are deleted, unless anything failed.
+     *
+     * @param target the local directory to mirror to
+     * @param options the mirror options
+     * @return the outcome of the mirror, or null if the branch or directory does not exist
+     */
+    public GithubMirrorResult mirrorTo(Path target, GithubMirrorOptions options) {
+        return new GithubMirror(this, target, options).run();
+    }
+    
+    /**
+     * Mirrors all files of the branch to a local directory with the default options.
+     *
+     * @param target the local directory to mirror to
+     * @return the outcome of the mirror, or null if the branch does not exist
+     * @see #mirrorTo(Path, GithubMirrorOptions)
+     */
+    public GithubMirrorResult mirrorTo(Path target) {
+        return mirrorTo(target, new GithubMirrorOptions());
+    }
+    
+    /**
+     * Retrieves the files changed from a commit to the head of the branch, as retrieved.
+     *
+     * @param base the base commit SHA, e.g. the {@link #getSHA() head} of an earlier retrieval of the branch
+     * @return a list of GithubChange objects representing the changed files, or null if the base commit does not exist
+     */
+    public List<GithubChange> changesSince(String base) {
+        return gh.changes(userName, repoName, base, head());
+    }
+    
+    /**
+     * Lazily streams the files changed from a commit to the head of the branch, as retrieved.
+     *
+     * @param base the base commit SHA, e.g. the {@link #getSHA() head} of an earlier retrieval of the branch
+     * @return a stream of GithubChange objects representing the changed files, empty if the base commit does not exist
+     * @see Github#streamChanges(String, String, String, String)
+     */
+    public Stream<GithubChange> streamChangesSince(String base) {
+        return gh.streamChanges(userName, repoName, base, head());
+    }
+    
+    /**
+     * Lazily streams the history of the branch, newest first, fetching one page of commits at a time.
+     *
+     * @return a stream of the commits
+     */
+    public Stream<GithubCommit> streamCommits() {
+        return gh.streamCommits(userName, repoName, head(), null, null, null);
+    }
+    
+    /**
+     * Lazily streams the commits of the branch matching the specified filters, newest first.
+     *
+     * @param since only list commits committed at or after this time (can be null)
+     * @param until only list commits committed at or before this time (can be null)
+     * @param path only list commits touching this file or directory (can be null)
+     * @return a stream of the commits
+     */
+    public Stream<GithubCommit> streamCommits(Instant since, Instant until, String path) {
+        return gh.streamCommits(userName, repoName, head(), since, until, path);
+    }
+    
+    /**
+     * Lazily iterates over the commits of the branch made after a cursor, newest first.
+     *
+     * @param cursor the cursor of the last run (can be null to list every commit)
+     * @return an iterator over the new commits, whose {@link GithubCommits#getCursor() cursor} resumes after them
+     */
+    public GithubCommits commitsSince(GithubCommitCursor cursor) {
+        return gh.commitsSince(userName, repoName, head(), cursor, null);
+    }
+    
+    /**
+     * Lazily iterates over the commits of the branch touching a path that were made after a cursor, newest first.
+     *
+     * @param cursor the cursor of the last run (can be null to list every commit)
+     * @param path only list commits touching this file or directory
+     * @return an iterator over the new commits, whose {@link GithubCommits#getCursor() cursor} resumes after them
+     */
+    public GithubCommits commitsSince(GithubCommitCursor cursor, String path) {
+        return gh.commitsSince(userName, repoName, head(), cursor, path);
+    }
+    
+    private String head() {
+        return sha != null ? sha : branchName;
+    }
+    
+    /**
+     * Returns this branch pinned to its head commit, so listings and downloads all read the same snapshot
+     * even if the branch moves in the meantime. The head is looked up if it is unknown.
+     *
+     * @return the branch named after its head commit SHA, or null if the branch does not exist
+     */
+    GithubBranch pinned() {
+        String head = sha;
+        if (head == null) {
+            GithubBranch current = gh.branch(userName, repoName, branchName);
+            head = current == null ? null : current.getSHA();
+            if (head == null) return null;
+        }
+        return new GithubBranch(gh, userName, repoName, head, head);
+    }
+    
     /**
      * Returns the name of the user.
      *
@@ -78,4 +229,13 @@ public class GithubBranch {
     public String getBranchName() {
         return branchName;
     }
+    
+    /**
+     * Returns the SHA of the commit the branch pointed to when it was retrieved.
+     *
+     * @return the head commit SHA, or null if it is unknown
+     */
+    public String getSHA() {
+        return sha;
+    }
 }
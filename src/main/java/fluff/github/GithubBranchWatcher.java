@@ -0,0 +1,291 @@
+package fluff.github;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the heads of many branches and reports the branches whose head commit moved.
+ * <p>
+ * Each branch is polled with a conditional request, so an unchanged branch costs a
+ * {@code 304 Not Modified} response that does not count against the rate limit. The polling interval
+ * is stretched to the {@code X-Poll-Interval} GitHub asks for. Listeners are only called when a head
+ * actually moves, and the {@link GithubEntityCache} of the client, if any, is refreshed with the new head.
+ * <p>
+ * Failed polls and exceptions thrown by listeners are passed to the {@link ErrorHandler}, if any. Without
+ * one, a failed poll is retried at the next poll and a failing listener is reported to the uncaught
+ * exception handler of the polling thread.
+ */
+public class GithubBranchWatcher implements AutoCloseable {
+
+    /**
+     * Receives the moves of a watched branch.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called when the head of a branch moved.
+         *
+         * @param previous the branch as last seen, with its previous head
+         * @param current the branch with its new head
+         */
+        void onMove(GithubBranch previous, GithubBranch current);
+    }
+
+    /**
+     * Receives the failures of a watched branch.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+
+        /**
+         * Called when a branch could not be polled, or when one of its listeners threw.
+         *
+         * @param userName the user name of the repository owner
+         * @param repoName the name of the repository
+         * @param branchName the name of the branch
+         * @param error the failure
+         */
+        void onError(String userName, String repoName, String branchName, RuntimeException error);
+    }
+
+    /**
+     * The default polling interval.
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(60);
+
+    private static final int NOT_MODIFIED = 304;
+    private static final int MAX_CONCURRENT_POLLS = GithubBulk.DEFAULT_PARALLELISM;
+
+    private final Github gh;
+    private final long interval;
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("github-watcher").factory());
+
+    private volatile ErrorHandler errorHandler;
+    private volatile long pollInterval;
+    private ScheduledFuture<?> task;
+    private boolean closed;
+
+    /**
+     * Constructs a new GithubBranchWatcher polling with the specified interval.
+     *
+     * @param gh the Github client instance
+     * @param interval the minimum time between two polls of every branch
+     */
+    public GithubBranchWatcher(Github gh, Duration interval) {
+        this.gh = gh;
+        this.interval = interval.toMillis();
+    }
+
+    /**
+     * Constructs a new GithubBranchWatcher polling with the default interval.
+     *
+     * @param gh the Github client instance
+     */
+    public GithubBranchWatcher(Github gh) {
+        this(gh, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Starts watching a branch. The first poll records the current head without calling the listener.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     * @param listener the listener called when the head moves
+     * @return this watcher
+     */
+    public GithubBranchWatcher watch(String userName, String repoName, String branchName, Listener listener) {
+        watches.computeIfAbsent(key(userName, repoName, branchName), k -> new Watch(userName, repoName, branchName))
+                .listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Stops watching a branch.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     */
+    public void unwatch(String userName, String repoName, String branchName) {
+        watches.remove(key(userName, repoName, branchName));
+    }
+
+    /**
+     * Returns the branch as last seen by the watcher.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     * @return the last seen branch, or null if the branch is not watched or was not polled successfully yet
+     */
+    public GithubBranch getBranch(String userName, String repoName, String branchName) {
+        Watch watch = watches.get(key(userName, repoName, branchName));
+        return watch == null ? null : watch.head;
+    }
+
+    /**
+     * Sets the handler receiving failed polls and exceptions thrown by listeners.
+     *
+     * @param errorHandler the handler to use, or null to use none
+     * @return this watcher
+     */
+    public GithubBranchWatcher setErrorHandler(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    /**
+     * Starts polling all watched branches in the background.
+     */
+    public synchronized void start() {
+        if (closed || task != null) return;
+
+        task = scheduler.schedule(this::run, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Polls all watched branches once, in parallel, and waits for the results. At most
+     * {@value GithubBulk#DEFAULT_PARALLELISM} branches are polled at the same time. A branch that fails to be polled
+     * keeps its last seen head until the next poll, and the failure is passed to the error handler.
+     */
+    public void poll() {
+        Semaphore permits = new Semaphore(MAX_CONCURRENT_POLLS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Watch watch : watches.values()) {
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        poll(watch);
+                    } catch (RuntimeException e) {
+                        ErrorHandler handler = errorHandler;
+                        if (handler != null) failed(handler, watch, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Returns the time between two polls, including any interval requested by GitHub.
+     *
+     * @return the polling interval
+     */
+    public Duration getInterval() {
+        return Duration.ofMillis(Math.max(interval, pollInterval));
+    }
+
+    /**
+     * Stops polling.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (task != null) task.cancel(false);
+        scheduler.shutdownNow();
+    }
+
+    private void run() {
+        try {
+            poll();
+        } finally {
+            synchronized (this) {
+                if (!closed) task = scheduler.schedule(this::run, getInterval().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void poll(Watch watch) {
+        String etag = watch.etag;
+        GithubResponse r = gh.response(gh.api.derive("repos/" + watch.userName + "/" + watch.repoName + "/branches/" + watch.branchName),
+                etag == null ? Map.of() : Map.of(GithubHeaders.IF_NONE_MATCH, etag));
+
+        String seconds = GithubHeaders.get(r, GithubHeaders.POLL_INTERVAL);
+        if (seconds != null) {
+            try {
+                pollInterval = Long.parseLong(seconds.trim()) * 1000;
+            } catch (NumberFormatException e) {}
+        }
+
+        if (!r.isOK()) {
+            Github.discard(r);
+            // 304 Not Modified: the head did not move since the last poll
+            if (r.getStatus() == NOT_MODIFIED) return;
+
+            throw new IllegalStateException("Failed to poll branch " + key(watch.userName, watch.repoName, watch.branchName)
+                    + ": " + r.getStatus());
+        }
+
+        GithubBranch current = GithubBinder.branch(gh, watch.userName, watch.repoName)
+                .read(r.getBody());
+        watch.etag = GithubHeaders.get(r, GithubHeaders.ETAG);
+
+        GithubBranch previous = watch.head;
+        watch.head = current;
+        if (previous == null || Objects.equals(previous.getSHA(), current.getSHA())) return;
+
+        GithubEntityCache entities = gh.getEntityCache();
+        if (entities != null) entities.put(current);
+
+        for (Listener listener : watch.listeners) {
+            try {
+                listener.onMove(previous, current);
+            } catch (RuntimeException e) {
+                // a failing listener must not keep the other listeners from being called
+                ErrorHandler handler = errorHandler;
+                if (handler != null) {
+                    failed(handler, watch, e);
+                } else {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }
+    }
+
+    private static void failed(ErrorHandler handler, Watch watch, RuntimeException e) {
+        try {
+            handler.onError(watch.userName, watch.repoName, watch.branchName, e);
+        } catch (RuntimeException suppressed) {
+            e.addSuppressed(suppressed);
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private static String key(String userName, String repoName, String branchName) {
+        return userName + "/" + repoName + "/" + branchName;
+    }
+
+    private static final class Watch {
+
+        private final String userName;
+        private final String repoName;
+        private final String branchName;
+        private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+        private volatile String etag;
+        private volatile GithubBranch head;
+
+        Watch(String userName, String repoName, String branchName) {
+            this.userName = userName;
+            this.repoName = repoName;
+            this.branchName = branchName;
+        }
+    }
+}
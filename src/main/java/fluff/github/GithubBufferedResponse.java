@@ -0,0 +1,64 @@
+package fluff.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import fluff.http.head.HTTPHeader;
+
+/**
+ * A response whose body was read into memory, so it can be inspected before it is handed to the caller.
+ * Only used for small error responses.
+ */
+final class GithubBufferedResponse implements GithubResponse {
+
+    private final GithubResponse r;
+    private final byte[] body;
+
+    private GithubBufferedResponse(GithubResponse r, byte[] body) {
+        this.r = r;
+        this.body = body;
+    }
+
+    /**
+     * Reads the body of a response into memory and closes it.
+     *
+     * @param r the response
+     * @return the buffered response
+     */
+    static GithubBufferedResponse of(GithubResponse r) {
+        if (r instanceof GithubBufferedResponse b) return b;
+
+        try (InputStream in = r.getBody()) {
+            return new GithubBufferedResponse(r, in == null ? new byte[0] : in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the body of the response as text.
+     *
+     * @return the body text
+     */
+    String getText() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int getStatus() {
+        return r.getStatus();
+    }
+
+    @Override
+    public String getHeader(HTTPHeader header) {
+        return r.getHeader(header);
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+}
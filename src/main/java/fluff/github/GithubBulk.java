@@ -0,0 +1,350 @@
+package fluff.github;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs lookups over many users and repositories as a pipeline of stages.
+ * <p>
+ * Each stage turns every item of the previous stage into any number of items, for example a user into its
+ * repositories, and runs on virtual threads with its own bound on the number of items processed at the
+ * same time. An item is handed to the next stage as soon as it is available, and a stage waits when the
+ * next one is at its bound, so a slow stage holds back the ones before it instead of letting their results
+ * pile up. Results are passed to a consumer as they complete, and an item that fails is reported as a
+ * {@link Failure} without stopping the rest of the run.
+ * <pre>{@code
+ * gh.bulk().users(logins).repositories().branches().forEach(branch -> ..., failure -> ...);
+ * }</pre>
+ */
+public class GithubBulk {
+
+    /**
+     * The default maximum number of items processed at the same time by each stage.
+     */
+    public static final int DEFAULT_PARALLELISM = 16;
+
+    private final Github gh;
+    private final int parallelism;
+
+    /**
+     * Constructs a new GithubBulk with the specified bound on the items processed at the same time by each stage.
+     *
+     * @param gh the Github client instance
+     * @param parallelism the maximum number of items processed at the same time by each stage
+     */
+    public GithubBulk(Github gh, int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be positive");
+
+        this.gh = gh;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Constructs a new GithubBulk with the default parallelism.
+     *
+     * @param gh the Github client instance
+     */
+    public GithubBulk(Github gh) {
+        this(gh, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Starts a pipeline looking up users.
+     *
+     * @param userNames the usernames of the users
+     * @return the stage of the users
+     */
+    public Users users(Collection<String> userNames) {
+        return new Users(new Stage<>(this, userNames, null, "user", userName -> {
+            GithubUser user = gh.user(userName);
+            if (user == null) throw new NoSuchElementException("User not found: " + userName);
+            return Stream.of(user);
+        }));
+    }
+
+    /**
+     * Starts a pipeline looking up repositories.
+     *
+     * @param fullNames the full names of the repositories, as {@code owner/name}
+     * @return the stage of the repositories
+     */
+    public Repositories repositories(Collection<String> fullNames) {
+        return new Repositories(new Stage<>(this, fullNames, null, "repository", fullName -> {
+            int slash = fullName.indexOf('/');
+            if (slash < 0) throw new IllegalArgumentException("Not a repository full name: " + fullName);
+
+            GithubRepository repository = gh.repository(fullName.substring(0, slash), fullName.substring(slash + 1));
+            if (repository == null) throw new NoSuchElementException("Repository not found: " + fullName);
+            return Stream.of(repository);
+        }));
+    }
+
+    /**
+     * Returns the maximum number of items processed at the same time by each stage.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * An item that could not be processed by a stage.
+     */
+    public static final class Failure {
+
+        private final String stage;
+        private final Object item;
+        private final RuntimeException error;
+
+        Failure(String stage, Object item, RuntimeException error) {
+            this.stage = stage;
+            this.item = item;
+            this.error = error;
+        }
+
+        /**
+         * Returns the name of the stage that failed.
+         *
+         * @return the stage name
+         */
+        public String getStage() {
+            return stage;
+        }
+
+        /**
+         * Returns the item the stage failed to process, like a username for the user stage or a
+         * {@link GithubUser} for the repositories stage.
+         *
+         * @return the input item
+         */
+        public Object getItem() {
+            return item;
+        }
+
+        /**
+         * Returns the error thrown while processing the item.
+         *
+         * @return the error
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return stage + " " + item + ": " + error;
+        }
+    }
+
+    /**
+     * A stage of a pipeline, producing items of the specified type.
+     *
+     * @param <T> the type of the items produced by this stage
+     */
+    public static class Stage<T> {
+
+        private final GithubBulk bulk;
+        private final Collection<?> source;
+        private final Stage<?> parent;
+        private final String name;
+        private final Function<Object, Stream<? extends T>> step;
+
+        @SuppressWarnings("unchecked")
+        <I> Stage(GithubBulk bulk, Collection<? extends I> source, Stage<? extends I> parent, String name,
+                Function<? super I, ? extends Stream<? extends T>> step) {
+            this.bulk = bulk;
+            this.source = source;
+            this.parent = parent;
+            this.name = name;
+            this.step = (Function<Object, Stream<? extends T>>) step;
+        }
+
+        Stage(Stage<T> stage) {
+            this.bulk = stage.bulk;
+            this.source = stage.source;
+            this.parent = stage.parent;
+            this.name = stage.name;
+            this.step = stage.step;
+        }
+
+        /**
+         * Adds a stage turning every item of this stage into any number of items.
+         *
+         * @param <R> the type of the items produced by the new stage
+         * @param name the name of the new stage, used in failures
+         * @param step produces the items for one item of this stage; the stream is closed once consumed
+         * @return the new stage
+         */
+        public <R> Stage<R> flatMap(String name, Function<? super T, ? extends Stream<? extends R>> step) {
+            return new Stage<>(bulk, null, this, name, step);
+        }
+
+        /**
+         * Adds a stage turning every item of this stage into one item. Items mapped to null are dropped.
+         *
+         * @param <R> the type of the items produced by the new stage
+         * @param name the name of the new stage, used in failures
+         * @param step produces the item for one item of this stage
+         * @return the new stage
+         */
+        public <R> Stage<R> map(String name, Function<? super T, ? extends R> step) {
+            return flatMap(name, item -> Stream.ofNullable(step.apply(item)));
+        }
+
+        /**
+         * Runs the pipeline and waits for it to complete. The consumers are never called concurrently.
+         *
+         * @param consumer receives the items produced by this stage as they complete
+         * @param failures receives the items that failed in any stage
+         */
+        public void forEach(Consumer<? super T> consumer, Consumer<? super Failure> failures) {
+            new Run<>(this, consumer, failures).run();
+        }
+
+        /**
+         * Runs the pipeline and waits for it to complete. The consumer is never called concurrently.
+         *
+         * @param consumer receives the items produced by this stage as they complete
+         * @return the items that failed in any stage
+         */
+        public List<Failure> forEach(Consumer<? super T> consumer) {
+            List<Failure> failures = new ArrayList<>();
+            forEach(consumer, failures::add);
+            return failures;
+        }
+
+        /**
+         * Runs the pipeline and collects its results, in completion order.
+         *
+         * @param failures receives the items that failed in any stage
+         * @return the items produced by this stage
+         */
+        public List<T> toList(Consumer<? super Failure> failures) {
+            List<T> items = new ArrayList<>();
+            forEach(items::add, failures);
+            return items;
+        }
+    }
+
+    /**
+     * A stage producing users.
+     */
+    public static final class Users extends Stage<GithubUser> {
+
+        Users(Stage<GithubUser> stage) {
+            super(stage);
+        }
+
+        /**
+         * Adds a stage listing the repositories of every user.
+         *
+         * @return the stage of the repositories
+         */
+        public Repositories repositories() {
+            return new Repositories(flatMap("repositories", GithubUser::streamRepositories));
+        }
+    }
+
+    /**
+     * A stage producing repositories.
+     */
+    public static final class Repositories extends Stage<GithubRepository> {
+
+        Repositories(Stage<GithubRepository> stage) {
+            super(stage);
+        }
+
+        /**
+         * Adds a stage listing the branches of every repository.
+         *
+         * @return the stage of the branches
+         */
+        public Stage<GithubBranch> branches() {
+            return flatMap("branches", GithubRepository::streamBranches);
+        }
+    }
+
+    /**
+     * One execution of a pipeline. Every stage but the source gets its own permits, and an item is only
+     * submitted to a stage once one of its permits is free, which blocks the submitting stage until then.
+     */
+    private static final class Run<T> {
+
+        private final List<Step> steps = new ArrayList<>();
+        private final Consumer<? super T> consumer;
+        private final Consumer<? super Failure> failures;
+        private final Phaser pending = new Phaser(1);
+        private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("github-bulk-", 0).factory());
+
+        Run(Stage<T> last, Consumer<? super T> consumer, Consumer<? super Failure> failures) {
+            for (Stage<?> stage = last; stage != null; stage = stage.parent) {
+                steps.add(new Step(stage, new Semaphore(stage.bulk.parallelism)));
+            }
+            Collections.reverse(steps);
+
+            this.consumer = consumer;
+            this.failures = failures;
+        }
+
+        void run() {
+            try (executor) {
+                for (Object item : steps.get(0).stage().source) {
+                    submit(0, item);
+                }
+                pending.arriveAndAwaitAdvance();
+            }
+        }
+
+        private void submit(int index, Object item) {
+            Semaphore semaphore = steps.get(index).permits();
+            semaphore.acquireUninterruptibly();
+            pending.register();
+            executor.execute(() -> {
+                try {
+                    process(index, item);
+                } finally {
+                    semaphore.release();
+                    pending.arriveAndDeregister();
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void process(int index, Object item) {
+            Stage<?> stage = steps.get(index).stage();
+            boolean last = index == steps.size() - 1;
+            try (Stream<?> results = stage.step.apply(item)) {
+                Iterator<?> it = results.iterator();
+                while (it.hasNext()) {
+                    Object result = it.next();
+                    if (last) {
+                        synchronized (this) {
+                            consumer.accept((T) result);
+                        }
+                    } else {
+                        submit(index + 1, result);
+                    }
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    failures.accept(new Failure(stage.name, item, e));
+                }
+            }
+        }
+
+        private record Step(Stage<?> stage, Semaphore permits) {}
+    }
+}
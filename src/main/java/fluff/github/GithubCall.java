@@ -0,0 +1,230 @@
+package fluff.github;
+
+import fluff.http.path.URLPath;
+
+/**
+ * A completed request of a {@link Github} client, as reported to a {@link GithubListener}.
+ * <p>
+ * A call covers every attempt made for one request, including retries after rate limiting and
+ * switches between the tokens of a pool. An attempt failing without a response, like a connection
+ * error, is reported as a failed call of its own, carrying the exception.
+ */
+public class GithubCall {
+
+    /**
+     * How a call relates to the response cache of the client.
+     */
+    public enum CacheOutcome {
+
+        /**
+         * The request was not conditional, or failed without a response.
+         */
+        NONE,
+
+        /**
+         * GitHub confirmed the cached response with {@code 304 Not Modified}.
+         */
+        REVALIDATED,
+
+        /**
+         * The request was conditional but GitHub returned a new response.
+         */
+        MODIFIED
+    }
+
+    private static final int NOT_MODIFIED = 304;
+
+    private final String method;
+    private final String url;
+    private final String endpoint;
+    private final String resource;
+    private final int status;
+    private final long latency;
+    private final long responseSize;
+    private final int attempts;
+    private final CacheOutcome cacheOutcome;
+    private final long remaining;
+    private final RuntimeException failure;
+
+    GithubCall(String method, String url, String endpoint, String resource, int status, long latency, long responseSize,
+            int attempts, boolean conditional, long remaining, RuntimeException failure) {
+        this.method = method;
+        this.url = url;
+        this.endpoint = endpoint;
+        this.resource = resource;
+        this.status = status;
+        this.latency = latency;
+        this.responseSize = responseSize;
+        this.attempts = attempts;
+        this.cacheOutcome = !conditional || failure != null ? CacheOutcome.NONE
+                : status == NOT_MODIFIED ? CacheOutcome.REVALIDATED : CacheOutcome.MODIFIED;
+        this.remaining = remaining;
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the HTTP method of the call.
+     *
+     * @return the method (e.g., GET)
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the requested URL.
+     *
+     * @return the URL
+     */
+    public String getURL() {
+        return url;
+    }
+
+    /**
+     * Returns the endpoint template of the call, with its parameters replaced by placeholders
+     * (e.g., {@code repos/{owner}/{repo}/branches}), suitable for grouping calls.
+     *
+     * @return the endpoint template
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the rate limit resource the call is charged to.
+     *
+     * @return the resource, or null if the call is not made to the API
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Returns the status code of the final response.
+     *
+     * @return the status code, or 0 if the call failed without a response
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the time from the first attempt until the final response or failure, including waits between
+     * retries.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the size of the final response body as announced by its {@code Content-Length} header.
+     *
+     * @return the size in bytes, or -1 if it is unknown
+     */
+    public long getResponseSize() {
+        return responseSize;
+    }
+
+    /**
+     * Returns the number of requests sent for the call.
+     *
+     * @return the number of attempts, at least 1
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns the number of requests sent again after the first one.
+     *
+     * @return the number of retries
+     */
+    public int getRetries() {
+        return attempts - 1;
+    }
+
+    /**
+     * Returns how the call relates to the response cache.
+     *
+     * @return the cache outcome
+     */
+    public CacheOutcome getCacheOutcome() {
+        return cacheOutcome;
+    }
+
+    /**
+     * Returns the remaining rate limit budget reported by the final response.
+     *
+     * @return the number of remaining requests, or -1 if the response did not report it
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Returns the exception an attempt failed with before any response was received. The client retries
+     * such a failure if its retry policy allows it, or throws it from the request.
+     *
+     * @return the exception, or null if the call received a response
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + endpoint + " " + (failure == null ? status : failure.getClass().getSimpleName()) + " in " + latency / 1_000_000 + "ms";
+    }
+
+    /**
+     * Turns a request URL into an endpoint template by replacing names, references and paths with placeholders.
+     * References and paths may contain slashes, so they end the template.
+     *
+     * @param api the base URL of the API
+     * @param raw the base URL of raw content
+     * @param url the request URL
+     * @return the endpoint template
+     */
+    static String endpoint(URLPath api, URLPath raw, String url) {
+        int query = url.indexOf('?');
+        if (query >= 0) url = url.substring(0, query);
+
+        if (url.startsWith(raw.toString())) return "raw/{owner}/{repo}/{ref}/{path}";
+        if (!url.startsWith(api.toString())) {
+            int host = url.indexOf("//");
+            int path = url.indexOf('/', host + 2);
+            return host < 0 || path < 0 ? url : url.substring(host + 2, path);
+        }
+
+        String[] parts = url.substring(api.toString().length()).split("/");
+        if (parts.length >= 2 && parts[0].equals("users")) {
+            return parts.length == 2 ? "users/{user}" : "users/{user}/" + parts[2];
+        }
+        if (parts.length >= 3 && parts[0].equals("repos")) {
+            StringBuilder sb = new StringBuilder("repos/{owner}/{repo}");
+            for (int i = 3; i < parts.length; i++) {
+                String placeholder = switch (parts[i - 1]) {
+                    case "branches" -> "{branch}";
+                    case "contents" -> "{path}";
+                    case "trees", "blobs" -> "{sha}";
+                    case "commits", "tarball", "zipball" -> "{ref}";
+                    case "compare" -> "{basehead}";
+                    case "releases", "assets" -> parts[i].equals("latest") || parts[i].equals("tags") ? null : "{id}";
+                    case "tags" -> "{tag}";
+                    default -> null;
+                };
+                if (placeholder == null) {
+                    sb.append('/').append(parts[i]);
+                    continue;
+                }
+
+                sb.append('/').append(placeholder);
+                if (!placeholder.equals("{id}")) break;
+            }
+            return sb.toString();
+        }
+        return String.join("/", parts);
+    }
+}
@@ -0,0 +1,74 @@
+package fluff.github;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder event of a {@link GithubCall}.
+ */
+@Name("fluff.github.Call")
+@Label("GitHub Call")
+@Description("A completed request of a GitHub client")
+@Category("GitHub")
+@StackTrace(false)
+final class GithubCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("URL")
+    String url;
+
+    @Label("Resource")
+    String resource;
+
+    @Label("Status")
+    int status;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Cache Outcome")
+    String cacheOutcome;
+
+    @Label("Remaining")
+    long remaining;
+
+    @Label("Failure")
+    String failure;
+
+    static void commit(GithubCall call) {
+        GithubCallEvent event = new GithubCallEvent();
+        if (!event.isEnabled()) return;
+
+        event.method = call.getMethod();
+        event.endpoint = call.getEndpoint();
+        event.url = call.getURL();
+        event.resource = call.getResource();
+        event.status = call.getStatus();
+        event.latency = call.getLatency();
+        event.responseSize = call.getResponseSize();
+        event.attempts = call.getAttempts();
+        event.cacheOutcome = call.getCacheOutcome().name();
+        event.remaining = call.getRemaining();
+        event.failure = call.getFailure() == null ? null : call.getFailure().toString();
+        event.commit();
+    }
+}
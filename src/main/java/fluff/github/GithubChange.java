@@ -0,0 +1,176 @@
+package fluff.github;
+
+import java.util.Locale;
+
+/**
+ * Represents a file changed between two commits of a GitHub repository, as returned by the compare API.
+ */
+public class GithubChange {
+
+    /**
+     * How a file changed between the two commits.
+     */
+    public enum Status {
+
+        /**
+         * The file was added.
+         */
+        ADDED,
+
+        /**
+         * The content of the file was modified.
+         */
+        MODIFIED,
+
+        /**
+         * The file was removed.
+         */
+        REMOVED,
+
+        /**
+         * The file was moved from {@link GithubChange#getPreviousPath()}, possibly with changes.
+         */
+        RENAMED,
+
+        /**
+         * The file was copied from {@link GithubChange#getPreviousPath()}.
+         */
+        COPIED,
+
+        /**
+         * The mode of the file changed.
+         */
+        CHANGED,
+
+        /**
+         * The file did not change.
+         */
+        UNCHANGED;
+
+        static Status of(String status) {
+            if (status == null) return CHANGED;
+
+            try {
+                return valueOf(status.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return CHANGED;
+            }
+        }
+    }
+
+    private final Github gh;
+
+    private final String userName;
+    private final String repoName;
+    private final String head;
+
+    private final String path;
+    private final String previousPath;
+    private final Status status;
+    private final String sha;
+
+    /**
+     * Constructs a GithubChange instance from its fields.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param head the commit the change leads to
+     * @param path the path of the file at the head commit
+     * @param previousPath the path of the file at the base commit, for renamed and copied files
+     * @param status the status of the change
+     * @param sha the git blob SHA of the file at the head commit
+     */
+    GithubChange(Github gh, String userName, String repoName, String head, String path, String previousPath, Status status, String sha) {
+        this.gh = gh;
+
+        this.userName = userName;
+        this.repoName = repoName;
+        this.head = head;
+
+        this.path = path;
+        this.previousPath = previousPath;
+        this.status = status;
+        this.sha = sha;
+    }
+
+    /**
+     * Retrieves the raw content of the file at the head commit.
+     *
+     * @return a GithubRawFile object representing the raw content of the file, or null if the file was removed
+     */
+    public GithubRawFile rawFile() {
+        if (status == Status.REMOVED) return null;
+
+        return gh.rawFile(userName, repoName, head, path, sha);
+    }
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the user's name
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Returns the name of the repository.
+     *
+     * @return the repository's name
+     */
+    public String getRepoName() {
+        return repoName;
+    }
+
+    /**
+     * Returns the commit the change leads to, as it was passed to the comparison.
+     *
+     * @return the head commit SHA or branch name
+     */
+    public String getHead() {
+        return head;
+    }
+
+    /**
+     * Returns the path of the file relative to the repository root, at the head commit.
+     *
+     * @return the file's path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the path the file had at the base commit.
+     *
+     * @return the previous path, or null if the file was not renamed or copied
+     */
+    public String getPreviousPath() {
+        return previousPath;
+    }
+
+    /**
+     * Returns how the file changed.
+     *
+     * @return the change status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the git blob SHA of the file at the head commit. For removed files, this is the SHA
+     * the file had before it was removed.
+     *
+     * @return the file SHA
+     */
+    public String getSHA() {
+        return sha;
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + (previousPath != null ? previousPath + " -> " : "") + path;
+    }
+}
@@ -0,0 +1,161 @@
+package fluff.github;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates identical API lookups that run at the same time.
+ * <p>
+ * The first caller for a key performs the request, and every concurrent caller with the same key
+ * waits for and shares its parsed result instead of sending a request of its own. Lookups are only
+ * shared between callers reading the response as the same type, whatever the key strategy. With a non-zero
+ * window, the completed result keeps being shared for that long after the request finished.
+ * <p>
+ * Every caller sharing a lookup receives the same object, so lookups must return immutable results, like the
+ * unmodifiable lists the client binds listings into.
+ */
+public class GithubCoalescer {
+
+    /**
+     * Strategy computing the key under which lookups are coalesced.
+     */
+    @FunctionalInterface
+    public interface KeyStrategy {
+
+        /**
+         * Coalesces lookups of the same URL made with the same credentials.
+         */
+        KeyStrategy URL_AND_CREDENTIALS = (url, credentials) -> credentials == null ? url : new Key(url, credentials);
+
+        /**
+         * Coalesces lookups of the same URL regardless of credentials, for clients reading only public data.
+         */
+        KeyStrategy URL = (url, credentials) -> url;
+
+        /**
+         * Computes the coalescing key of a lookup.
+         *
+         * @param url the request URL
+         * @param credentials the credentials of the client (a token, a token pool, or null)
+         * @return the key, lookups with equal keys are coalesced
+         */
+        Object key(String url, Object credentials);
+    }
+
+    private final Duration window;
+    private final KeyStrategy keyStrategy;
+    private final Map<Flight, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Constructs a new GithubCoalescer.
+     *
+     * @param window how long a completed result keeps being shared, or zero to only share in-flight requests
+     * @param keyStrategy the strategy computing coalescing keys
+     */
+    public GithubCoalescer(Duration window, KeyStrategy keyStrategy) {
+        this.window = window;
+        this.keyStrategy = keyStrategy;
+    }
+
+    /**
+     * Constructs a new GithubCoalescer that only shares in-flight requests, keyed by URL and credentials.
+     */
+    public GithubCoalescer() {
+        this(Duration.ZERO, KeyStrategy.URL_AND_CREDENTIALS);
+    }
+
+    /**
+     * Runs a lookup, or joins an identical lookup already in flight.
+     *
+     * @param <V> the result type
+     * @param url the request URL
+     * @param type the type the response is read as
+     * @param credentials the credentials of the client (can be null)
+     * @param call the lookup
+     * @return the result of the lookup
+     */
+    @SuppressWarnings("unchecked")
+    <V> V execute(String url, Class<? super V> type, Object credentials, Supplier<V> call) {
+        Flight key = new Flight(type, keyStrategy.key(url, credentials));
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            shared.increment();
+            try {
+                return (V) type.cast(existing.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                if (e.getCause() instanceof Error err) throw err;
+                throw e;
+            }
+        }
+
+        requests.increment();
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            flights.remove(key, flight);
+            throw e;
+        } finally {
+            if (window.isZero() || window.isNegative()) {
+                flights.remove(key, flight);
+            } else if (!flight.isCompletedExceptionally()) {
+                CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS)
+                        .execute(() -> flights.remove(key, flight));
+            }
+        }
+    }
+
+    /**
+     * Returns how long a completed result keeps being shared.
+     *
+     * @return the coalescing window
+     */
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Returns the strategy computing coalescing keys.
+     *
+     * @return the key strategy
+     */
+    public KeyStrategy getKeyStrategy() {
+        return keyStrategy;
+    }
+
+    /**
+     * Returns the number of lookups that performed a request.
+     *
+     * @return the number of requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of lookups that shared the result of another lookup.
+     *
+     * @return the number of shared lookups
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    private record Key(String url, Object credentials) {}
+
+    private record Flight(Class<?> type, Object key) {}
+}
@@ -0,0 +1,158 @@
+package fluff.github;
+
+import java.time.Instant;
+
+/**
+ * Represents a commit of a GitHub repository, as listed by the commits API.
+ */
+public class GithubCommit {
+
+    private final Github gh;
+
+    private final String userName;
+    private final String repoName;
+
+    private final String sha;
+    private final String message;
+    private final String authorName;
+    private final String authorEmail;
+    private final String authorLogin;
+    private final Instant authorDate;
+    private final Instant commitDate;
+
+    /**
+     * Constructs a GithubCommit instance from its fields.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param sha the SHA of the commit
+     * @param message the commit message
+     * @param authorName the git author name
+     * @param authorEmail the git author email
+     * @param authorLogin the GitHub login of the author (can be null)
+     * @param authorDate the time the commit was authored
+     * @param commitDate the time the commit was committed
+     */
+    GithubCommit(Github gh, String userName, String repoName, String sha, String message, String authorName, String authorEmail,
+            String authorLogin, Instant authorDate, Instant commitDate) {
+        this.gh = gh;
+
+        this.userName = userName;
+        this.repoName = repoName;
+
+        this.sha = sha;
+        this.message = message;
+        this.authorName = authorName;
+        this.authorEmail = authorEmail;
+        this.authorLogin = authorLogin;
+        this.authorDate = authorDate;
+        this.commitDate = commitDate;
+    }
+
+    /**
+     * Retrieves the raw content of a file at this commit.
+     *
+     * @param filePath the path of the file relative to the repository root
+     * @return a GithubRawFile object representing the raw content of the file
+     */
+    public GithubRawFile rawFile(String filePath) {
+        return gh.rawFile(userName, repoName, sha, filePath, null);
+    }
+
+    /**
+     * Returns a cursor pointing at this commit, to list only the commits made after it later.
+     *
+     * @return the cursor
+     */
+    public GithubCommitCursor cursor() {
+        return new GithubCommitCursor(sha, commitDate);
+    }
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the user's name
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Returns the name of the repository.
+     *
+     * @return the repository's name
+     */
+    public String getRepoName() {
+        return repoName;
+    }
+
+    /**
+     * Returns the SHA of the commit.
+     *
+     * @return the commit SHA
+     */
+    public String getSHA() {
+        return sha;
+    }
+
+    /**
+     * Returns the commit message.
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the git author name of the commit.
+     *
+     * @return the author name
+     */
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    /**
+     * Returns the git author email of the commit.
+     *
+     * @return the author email
+     */
+    public String getAuthorEmail() {
+        return authorEmail;
+    }
+
+    /**
+     * Returns the GitHub login of the author.
+     *
+     * @return the author login, or null if the author email is not linked to a GitHub account
+     */
+    public String getAuthorLogin() {
+        return authorLogin;
+    }
+
+    /**
+     * Returns the time the commit was authored.
+     *
+     * @return the author date
+     */
+    public Instant getAuthorDate() {
+        return authorDate;
+    }
+
+    /**
+     * Returns the time the commit was committed, which the {@code since} and {@code until} filters apply to.
+     *
+     * @return the commit date
+     */
+    public Instant getCommitDate() {
+        return commitDate;
+    }
+
+    @Override
+    public String toString() {
+        int line = message == null ? -1 : message.indexOf('\n');
+        return sha + " " + (line < 0 ? message : message.substring(0, line));
+    }
+}
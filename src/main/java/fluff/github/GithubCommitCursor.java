@@ -0,0 +1,83 @@
+package fluff.github;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * Marks the newest commit a listing has seen, so a later listing only returns the commits made after it.
+ * <p>
+ * A cursor is persisted through its {@link #toString() string form} and restored with {@link #parse(String)}.
+ */
+public class GithubCommitCursor {
+
+    private final String sha;
+    private final Instant date;
+
+    /**
+     * Constructs a new GithubCommitCursor.
+     *
+     * @param sha the SHA of the newest seen commit
+     * @param date the commit date of the newest seen commit
+     */
+    public GithubCommitCursor(String sha, Instant date) {
+        this.sha = Objects.requireNonNull(sha, "sha");
+        this.date = Objects.requireNonNull(date, "date");
+    }
+
+    /**
+     * Restores a cursor from its string form.
+     *
+     * @param cursor the string form, as returned by {@link #toString()}
+     * @return the cursor
+     * @throws IllegalArgumentException if the string is not a cursor
+     */
+    public static GithubCommitCursor parse(String cursor) {
+        int space = cursor.indexOf(' ');
+        if (space < 0) throw new IllegalArgumentException("Not a commit cursor: " + cursor);
+
+        try {
+            return new GithubCommitCursor(cursor.substring(space + 1), Instant.parse(cursor.substring(0, space)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Not a commit cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Returns the SHA of the newest seen commit.
+     *
+     * @return the commit SHA
+     */
+    public String getSHA() {
+        return sha;
+    }
+
+    /**
+     * Returns the commit date of the newest seen commit.
+     *
+     * @return the commit date
+     */
+    public Instant getDate() {
+        return date;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GithubCommitCursor c && sha.equals(c.sha) && date.equals(c.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return sha.hashCode();
+    }
+
+    /**
+     * Returns the string form of the cursor, its commit date in ISO 8601 followed by a space and its SHA.
+     *
+     * @return the string form
+     */
+    @Override
+    public String toString() {
+        return date + " " + sha;
+    }
+}
@@ -0,0 +1,100 @@
+package fluff.github;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy iterator over the commits made after a {@link GithubCommitCursor}, newest first.
+ * <p>
+ * The listing is requested with the date of the cursor as its {@code since} filter and stops at the
+ * commit of the cursor, so commits sharing its date are not returned twice. Once the iteration is
+ * exhausted, {@link #getCursor()} points at the newest commit returned and can be persisted for the next run.
+ */
+public class GithubCommits implements Iterator<GithubCommit>, AutoCloseable {
+
+    private final GithubPages<GithubCommit> pages;
+    private final String stopAt;
+
+    private GithubCommitCursor cursor;
+    private GithubCommitCursor newest;
+    private GithubCommit next;
+    private boolean done;
+
+    /**
+     * Constructs a new GithubCommits instance.
+     *
+     * @param pages the pages of the listing, filtered by the date of the cursor
+     * @param cursor the cursor the listing starts after (can be null to list every commit)
+     */
+    GithubCommits(GithubPages<GithubCommit> pages, GithubCommitCursor cursor) {
+        this.pages = pages;
+        this.stopAt = cursor == null ? null : cursor.getSHA();
+        this.cursor = cursor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (done) return false;
+
+        if (!pages.hasNext()) return finish();
+
+        GithubCommit commit = pages.next();
+        if (commit.getSHA().equals(stopAt)) return finish();
+
+        if (newest == null) newest = commit.cursor();
+        next = commit;
+        return true;
+    }
+
+    @Override
+    public GithubCommit next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        GithubCommit commit = next;
+        next = null;
+        return commit;
+    }
+
+    /**
+     * Returns a sequential stream over the remaining commits. Closing the stream closes this iterator.
+     *
+     * @return the stream of commits
+     */
+    public Stream<GithubCommit> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Returns the cursor to resume from in a later run. It only advances once every commit was
+     * iterated, so an interrupted run does not skip the commits it did not reach.
+     *
+     * @return the cursor of the newest commit returned, or the starting cursor if the iteration is not
+     *         exhausted or returned nothing (can be null)
+     */
+    public GithubCommitCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Stops the iteration without advancing the cursor.
+     */
+    @Override
+    public void close() {
+        done = true;
+        next = null;
+        pages.close();
+    }
+
+    private boolean finish() {
+        done = true;
+        pages.close();
+        if (newest != null) cursor = newest;
+        return false;
+    }
+}
@@ -0,0 +1,288 @@
+package fluff.github;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded cache of looked up users, repositories and branches.
+ * <p>
+ * Unlike a {@link GithubResponseCache}, which still sends a conditional request for every lookup, a hit
+ * in this cache is served without any request at all, so entries are only kept for the time-to-live of
+ * their type. The least recently used entry is evicted when the cache is full, and entries can be
+ * invalidated explicitly, for example when a webhook reports a change.
+ */
+public class GithubEntityCache {
+
+    /**
+     * The default maximum number of entries.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final int maxEntries;
+    private final long userTTL;
+    private final long repositoryTTL;
+    private final long branchTTL;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new GithubEntityCache with a time-to-live per entity type.
+     *
+     * @param maxEntries the maximum number of entries
+     * @param userTTL how long users are kept
+     * @param repositoryTTL how long repositories are kept
+     * @param branchTTL how long branches are kept
+     */
+    public GithubEntityCache(int maxEntries, Duration userTTL, Duration repositoryTTL, Duration branchTTL) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+
+        this.maxEntries = maxEntries;
+        this.userTTL = userTTL.toNanos();
+        this.repositoryTTL = repositoryTTL.toNanos();
+        this.branchTTL = branchTTL.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= GithubEntityCache.this.maxEntries) return false;
+
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Constructs a new GithubEntityCache keeping users and repositories for 10 minutes and branches,
+     * which move with every push, for 1 minute.
+     */
+    public GithubEntityCache() {
+        this(DEFAULT_MAX_ENTRIES, Duration.ofMinutes(10), Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    GithubUser user(String userName) {
+        return get(userKey(userName));
+    }
+
+    GithubRepository repository(String userName, String repoName) {
+        return get(repositoryKey(userName, repoName));
+    }
+
+    GithubBranch branch(String userName, String repoName, String branchName) {
+        return get(branchKey(userName, repoName, branchName));
+    }
+
+    void put(GithubUser user) {
+        put(userKey(user.getUserName()), user, userTTL);
+    }
+
+    void put(GithubRepository repository) {
+        put(repositoryKey(repository.getUserName(), repository.getRepoName()), repository, repositoryTTL);
+    }
+
+    void put(GithubBranch branch) {
+        put(branchKey(branch.getUserName(), branch.getRepoName(), branch.getBranchName()), branch, branchTTL);
+    }
+
+    /**
+     * Removes a cached user.
+     *
+     * @param userName the username of the user
+     */
+    public void invalidateUser(String userName) {
+        synchronized (entries) {
+            entries.remove(userKey(userName));
+        }
+    }
+
+    /**
+     * Removes a cached repository together with all of its cached branches.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     */
+    public void invalidateRepository(String userName, String repoName) {
+        String key = repositoryKey(userName, repoName);
+        String branches = "b:" + key.substring(2) + "/";
+        synchronized (entries) {
+            entries.remove(key);
+            entries.keySet().removeIf(k -> k.startsWith(branches));
+        }
+    }
+
+    /**
+     * Removes a cached branch.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param branchName the name of the branch
+     */
+    public void invalidateBranch(String userName, String repoName, String branchName) {
+        synchronized (entries) {
+            entries.remove(branchKey(userName, repoName, branchName));
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Removes all expired entries. Expired entries are otherwise only removed when they are looked up.
+     *
+     * @return the number of removed entries
+     */
+    public int purge() {
+        long now = System.nanoTime();
+        int purged = 0;
+        synchronized (entries) {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                    purged++;
+                }
+            }
+        }
+        expirations.add(purged);
+        return purged;
+    }
+
+    /**
+     * Returns the number of entries currently in the cache, expired ones included.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries of the cache.
+     *
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no live entry.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if nothing was looked up yet
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of entries removed because their time-to-live elapsed.
+     *
+     * @return the number of expirations
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted because the cache was full.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private <V> V get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.getValue();
+    }
+
+    private void put(String key, Object value, long ttl) {
+        if (ttl <= 0) return;
+
+        Entry entry = new Entry(value, System.nanoTime() + ttl);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static String userKey(String userName) {
+        return "u:" + userName.toLowerCase(Locale.ROOT);
+    }
+
+    private static String repositoryKey(String userName, String repoName) {
+        return "r:" + userName.toLowerCase(Locale.ROOT) + "/" + repoName.toLowerCase(Locale.ROOT);
+    }
+
+    private static String branchKey(String userName, String repoName, String branchName) {
+        return "b:" + userName.toLowerCase(Locale.ROOT) + "/" + repoName.toLowerCase(Locale.ROOT) + "/" + branchName;
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> V getValue() {
+            return (V) value;
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package fluff.github;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
 import fluff.http.path.URLPath;
-import fluff.json.JSONObject;
 
 /**
  * Represents a file in a GitHub repository and provides methods to interact with it.
  */
 public class GithubFile {
     
+    private static final String RAW = "application/vnd.github.raw";
+    
     private final Github gh;
     
     private final String userName;
@@ -22,30 +29,39 @@ public class GithubFile {
     private final String downloadUrl;
     private final String sha;
     private final long size;
+    private final String content;
     
     /**
-     * Constructs a GithubFile instance from a JSONObject.
+     * Constructs a GithubFile instance from its fields.
      *
      * @param gh the Github client instance
      * @param userName the user name that owns the repository
      * @param repoName the repository name
      * @param branchName the branch name
-     * @param json the JSON object containing file information
+     * @param filePath the path of the file
+     * @param fileName the name of the file
+     * @param type the type of the file
+     * @param downloadUrl the download URL of the file
+     * @param sha the SHA of the file
+     * @param size the size of the file in bytes
+     * @param content the base64 encoded content of the file, or null if the response did not include it
      */
-    GithubFile(Github gh, String userName, String repoName, String branchName, JSONObject json) {
+    GithubFile(Github gh, String userName, String repoName, String branchName, String filePath, String fileName,
+            String type, String downloadUrl, String sha, long size, String content) {
         this.gh = gh;
         
         this.userName = userName;
         this.repoName = repoName;
         this.branchName = branchName;
         
-        this.filePath = json.getString("path");
-        this.fileName = json.getString("name");
+        this.filePath = filePath;
+        this.fileName = fileName;
         
-        this.type = json.getString("type");
-        this.downloadUrl = json.getString("download_url");
-        this.sha = json.getString("sha");
-        this.size = json.getLong("size");
+        this.type = type;
+        this.downloadUrl = downloadUrl;
+        this.sha = sha;
+        this.size = size;
+        this.content = content;
     }
     
     /**
@@ -74,7 +90,74 @@ public class GithubFile {
      * @return a GithubRawFile object representing the raw content of the file
      */
     public GithubRawFile rawFile() {
-    	return new GithubRawFile(gh, URLPath.of(downloadUrl));
+    	return new GithubRawFile(gh, URLPath.of(downloadUrl), sha);
+    }
+    
+    /**
+     * Reads the content of the file. The content included in the response for files up to 1 MB is decoded
+     * without another request; larger files are downloaded like {@link GithubRawFile#content()}.
+     *
+     * @return the content of the file, or null if this is not a file or it does not exist anymore
+     */
+    public ByteBuffer content() {
+        if (content == null) {
+            if (downloadUrl != null) return rawFile().content();
+            
+            try (InputStream in = openStream()) {
+                return in == null ? null : ByteBuffer.wrap(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        try (InputStream in = decode()) {
+            if (size <= 0) return ByteBuffer.wrap(in.readAllBytes());
+            
+            byte[] bytes = new byte[(int) size];
+            int n = in.readNBytes(bytes, 0, bytes.length);
+            return ByteBuffer.wrap(bytes, 0, n);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Opens a stream over the content of the file. The content included in the response for files up to
+     * 1 MB is decoded while it is read, without another request; larger files are downloaded from their
+     * raw URL, or from the git blobs API if they have none.
+     *
+     * @return the content stream, or null if this is not a file or it does not exist anymore
+     */
+    public InputStream openStream() {
+        if (content != null) return decode();
+        
+        GithubResponse r;
+        if (downloadUrl != null) {
+            r = rawFile().response();
+        } else if (sha != null && "file".equals(type)) {
+            r = gh.response(gh.api.derive("repos/" + userName + "/" + repoName + "/git/blobs/" + sha), Map.of(GithubHeaders.ACCEPT, RAW));
+        } else {
+            return null;
+        }
+        if (!r.isOK()) {
+            Github.discard(r);
+            return null;
+        }
+        
+        return r.getBody();
+    }
+    
+    /**
+     * Checks if the content of the file was included in the response, so reading it needs no request.
+     *
+     * @return true if the content is available, false otherwise
+     */
+    public boolean hasContent() {
+        return content != null;
+    }
+    
+    private InputStream decode() {
+        return Base64.getMimeDecoder().wrap(new Base64Stream(content));
     }
     
     /**
@@ -157,4 +240,34 @@ public class GithubFile {
     public long getSize() {
         return size;
     }
+    
+    /**
+     * Reads the characters of a base64 string as bytes, without copying it.
+     */
+    private static final class Base64Stream extends InputStream {
+        
+        private final String s;
+        private int pos;
+        
+        Base64Stream(String s) {
+            this.s = s;
+        }
+        
+        @Override
+        public int read() {
+            return pos < s.length() ? s.charAt(pos++) & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (pos >= s.length()) return -1;
+            
+            int n = Math.min(len, s.length() - pos);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) s.charAt(pos++);
+            }
+            return n;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package fluff.github;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import fluff.http.HTTP;
+import fluff.http.body.HTTPBody;
+import fluff.http.body.HTTPBodyParser;
+import fluff.http.head.HTTPHead;
+import fluff.http.head.HTTPHeader;
+import fluff.http.path.URLPath;
+import fluff.http.request.HTTPRequest;
+import fluff.http.response.HTTPResponse;
+
+/**
+ * Sends requests through a fluff {@link HTTP} client.
+ */
+final class GithubFluffTransport implements GithubTransport {
+
+    private final HTTP http;
+
+    /**
+     * Constructs a new GithubFluffTransport.
+     *
+     * @param http the HTTP client to use
+     */
+    GithubFluffTransport(HTTP http) {
+        this.http = http;
+    }
+
+    @Override
+    public GithubResponse send(URLPath url, Map<HTTPHeader, String> headers, String authorization, String body) {
+        HTTPHead.Builder head = HTTPHead.builder();
+        for (Map.Entry<HTTPHeader, String> e : headers.entrySet()) {
+            head.add(e.getKey(), e.getValue());
+        }
+        if (authorization != null) {
+            head.add(HTTPHeader.AUTHORIZATION, authorization);
+        }
+
+        HTTPRequest r = body == null ? http.GET(url) : http.POST(url);
+        r.setHead(head.build());
+        if (body != null) r.setBody(HTTPBody.of(body));
+        return new Response(r.send());
+    }
+
+    static final class Response implements GithubResponse {
+
+        private final HTTPResponse r;
+
+        Response(HTTPResponse r) {
+            this.r = r;
+        }
+
+        /**
+         * Returns the fluff response this response adapts.
+         *
+         * @return the HTTP response
+         */
+        HTTPResponse getResponse() {
+            return r;
+        }
+
+        @Override
+        public int getStatus() {
+            return r.getStatus().getCode();
+        }
+
+        @Override
+        public String getHeader(HTTPHeader header) {
+            return r.getHead().get(header);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return r.getBody().get(HTTPBodyParser.STREAM);
+        }
+    }
+}
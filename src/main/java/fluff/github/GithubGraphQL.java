@@ -0,0 +1,158 @@
+package fluff.github;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fluff.json.JSONObject;
+
+/**
+ * Builds the aliased GraphQL queries used for batch lookups and maps their results to the REST models.
+ */
+final class GithubGraphQL {
+
+    /**
+     * The maximum number of aliased lookups sent in a single query.
+     */
+    static final int CHUNK_SIZE = 100;
+
+    private static final String REPOSITORY_FIELDS = "databaseId name nameWithOwner description homepageUrl isArchived"
+            + " owner { login } defaultBranchRef { name }";
+
+    // users and organizations are both repository owners, like they are both users to the REST API
+    private static final String USER_FIELDS = "login avatarUrl repositories(privacy: PUBLIC) { totalCount }"
+            + " ... on User { databaseId name location bio gists(privacy: PUBLIC) { totalCount } }"
+            + " ... on Organization { databaseId name location description }";
+
+    private GithubGraphQL() {}
+
+    /**
+     * Builds the request body of a query resolving repositories, aliased {@code r0}, {@code r1}, ...
+     *
+     * @param refs the repositories to resolve
+     * @return the JSON request body
+     */
+    static String repositoriesQuery(List<GithubRepoRef> refs) {
+        StringBuilder params = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        StringBuilder variables = new StringBuilder();
+        for (int i = 0; i < refs.size(); i++) {
+            GithubRepoRef ref = refs.get(i);
+            if (i > 0) {
+                params.append(", ");
+                variables.append(", ");
+            }
+            params.append("$o").append(i).append(": String!, $n").append(i).append(": String!");
+            fields.append(" r").append(i).append(": repository(owner: $o").append(i).append(", name: $n").append(i).append(") { ...R }");
+            variables.append("\"o").append(i).append("\": ").append(quote(ref.getUserName()))
+                    .append(", \"n").append(i).append("\": ").append(quote(ref.getRepoName()));
+        }
+
+        String query = "query(" + params + ") {" + fields + " } fragment R on Repository { " + REPOSITORY_FIELDS + " }";
+        return "{\"query\": " + quote(query) + ", \"variables\": {" + variables + "}}";
+    }
+
+    /**
+     * Builds the request body of a query resolving users or organizations, aliased {@code u0}, {@code u1}, ...
+     *
+     * @param userNames the users to resolve
+     * @return the JSON request body
+     */
+    static String usersQuery(List<String> userNames) {
+        StringBuilder params = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        StringBuilder variables = new StringBuilder();
+        for (int i = 0; i < userNames.size(); i++) {
+            if (i > 0) {
+                params.append(", ");
+                variables.append(", ");
+            }
+            params.append("$l").append(i).append(": String!");
+            fields.append(" u").append(i).append(": repositoryOwner(login: $l").append(i).append(") { ...U }");
+            variables.append("\"l").append(i).append("\": ").append(quote(userNames.get(i)));
+        }
+
+        String query = "query(" + params + ") {" + fields + " } fragment U on RepositoryOwner { " + USER_FIELDS + " }";
+        return "{\"query\": " + quote(query) + ", \"variables\": {" + variables + "}}";
+    }
+
+    /**
+     * Maps a GraphQL repository node to a GithubRepository.
+     *
+     * @param gh the Github client instance
+     * @param node the repository node
+     * @return the repository
+     */
+    static GithubRepository repository(Github gh, JSONObject node) {
+        JSONObject defaultBranch = node.getObject("defaultBranchRef");
+        return new GithubRepository(gh,
+                node.getObject("owner").getString("login"),
+                node.getString("name"),
+                node.getLong("databaseId"),
+                node.getString("nameWithOwner"),
+                node.getString("description"),
+                node.getString("homepageUrl"),
+                defaultBranch == null ? null : defaultBranch.getString("name"),
+                node.getBoolean("isArchived"));
+    }
+
+    /**
+     * Maps a GraphQL repository owner node to a GithubUser. Organizations have a description instead of a
+     * bio and no gists.
+     *
+     * @param gh the Github client instance
+     * @param node the user or organization node
+     * @return the user
+     */
+    static GithubUser user(Github gh, JSONObject node) {
+        JSONObject gists = node.getObject("gists");
+        return new GithubUser(gh,
+                node.getString("login"),
+                node.getLong("databaseId"),
+                node.getString("name"),
+                node.getString("location"),
+                node.getString("avatarUrl"),
+                gists != null ? node.getString("bio") : node.getString("description"),
+                node.getObject("repositories").getInt("totalCount"),
+                gists == null ? 0 : gists.getInt("totalCount"));
+    }
+
+    /**
+     * Splits a list into chunks of at most {@link #CHUNK_SIZE} elements.
+     *
+     * @param <T> the element type
+     * @param list the list
+     * @return the chunks
+     */
+    static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += CHUNK_SIZE) {
+            chunks.add(list.subList(i, Math.min(list.size(), i + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Encodes a string as a JSON string literal.
+     *
+     * @param s the string
+     * @return the quoted and escaped string
+     */
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,68 @@
+package fluff.github;
+
+import fluff.http.head.HTTPHeader;
+
+/**
+ * HTTP header names used by the GitHub client that are not predefined by {@link HTTPHeader}.
+ */
+final class GithubHeaders {
+
+    static final HTTPHeader ACCEPT = HTTPHeader.of("Accept");
+    static final HTTPHeader ETAG = HTTPHeader.of("ETag");
+    static final HTTPHeader LAST_MODIFIED = HTTPHeader.of("Last-Modified");
+    static final HTTPHeader IF_NONE_MATCH = HTTPHeader.of("If-None-Match");
+    static final HTTPHeader IF_MODIFIED_SINCE = HTTPHeader.of("If-Modified-Since");
+    static final HTTPHeader IF_RANGE = HTTPHeader.of("If-Range");
+    static final HTTPHeader CONTENT_LENGTH = HTTPHeader.of("Content-Length");
+    static final HTTPHeader CONTENT_RANGE = HTTPHeader.of("Content-Range");
+    static final HTTPHeader LINK = HTTPHeader.of("Link");
+    static final HTTPHeader RANGE = HTTPHeader.of("Range");
+    static final HTTPHeader RETRY_AFTER = HTTPHeader.of("Retry-After");
+    static final HTTPHeader POLL_INTERVAL = HTTPHeader.of("X-Poll-Interval");
+    static final HTTPHeader RATE_LIMIT_LIMIT = HTTPHeader.of("X-RateLimit-Limit");
+    static final HTTPHeader RATE_LIMIT_REMAINING = HTTPHeader.of("X-RateLimit-Remaining");
+    static final HTTPHeader RATE_LIMIT_RESET = HTTPHeader.of("X-RateLimit-Reset");
+    static final HTTPHeader RATE_LIMIT_RESOURCE = HTTPHeader.of("X-RateLimit-Resource");
+
+    private GithubHeaders() {}
+
+    /**
+     * Returns the value of a header from a response.
+     *
+     * @param r the response
+     * @param header the header
+     * @return the header value, or null if the header is not present
+     */
+    static String get(GithubResponse r, HTTPHeader header) {
+        return r.getHeader(header);
+    }
+
+    /**
+     * Parses the {@code Content-Range} header of a response, either {@code bytes first-last/size} sent
+     * with a partial response or {@code bytes *}{@code /size} sent with an unsatisfiable range.
+     *
+     * @param r the response
+     * @return the first byte, the last byte and the size, with -1 for the bytes of an unsatisfiable range
+     *         and for an unknown size, or null if the header is missing or malformed
+     */
+    static long[] contentRange(GithubResponse r) {
+        String value = get(r, CONTENT_RANGE);
+        if (value == null || !value.startsWith("bytes ")) return null;
+
+        int slash = value.indexOf('/');
+        if (slash < 0) return null;
+
+        try {
+            String range = value.substring(6, slash).trim();
+            String size = value.substring(slash + 1).trim();
+            long total = size.equals("*") ? -1 : Long.parseLong(size);
+            if (range.equals("*")) return new long[] {-1, -1, total};
+
+            int dash = range.indexOf('-');
+            if (dash < 0) return null;
+            return new long[] {Long.parseLong(range.substring(0, dash)), Long.parseLong(range.substring(dash + 1)), total};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package fluff.github;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import fluff.http.head.HTTPHeader;
+import fluff.http.path.URLPath;
+
+/**
+ * Sends requests through a {@link HttpClient}, for clients constructed with a {@link GithubTransport}
+ * instead of a fluff {@link fluff.http.HTTP} client.
+ * <p>
+ * Connections are kept alive between requests, and concurrent requests to the same host are multiplexed
+ * over a single HTTP/2 connection instead of each paying for its own TLS handshake. Bodies are requested
+ * gzip compressed and decompressed as they are read, except for range requests, whose offsets refer to the
+ * uncompressed content.
+ */
+public class GithubHttpClientTransport implements GithubTransport {
+
+    /**
+     * The default timeout for establishing a connection.
+     */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String GZIP = "gzip";
+
+    private final HttpClient client;
+
+    /**
+     * Constructs a new GithubHttpClientTransport sending requests through the specified client.
+     *
+     * @param client the HTTP client to use
+     */
+    public GithubHttpClientTransport(HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Constructs a new GithubHttpClientTransport with its own HTTP/2 client following redirects.
+     */
+    public GithubHttpClientTransport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+                .build());
+    }
+
+    /**
+     * Returns a transport shared by all clients it is passed to, so they also share their connections.
+     *
+     * @return the shared transport
+     */
+    public static GithubHttpClientTransport getDefault() {
+        return Default.INSTANCE;
+    }
+
+    @Override
+    public GithubResponse send(URLPath url, Map<HTTPHeader, String> headers, String authorization, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url.toString()));
+        for (Map.Entry<HTTPHeader, String> e : headers.entrySet()) {
+            request.header(e.getKey().getName(), e.getValue());
+        }
+        if (authorization != null) request.header(AUTHORIZATION, authorization);
+        if (!headers.containsKey(GithubHeaders.RANGE)) request.header(ACCEPT_ENCODING, GZIP);
+
+        if (body == null) {
+            request.GET();
+        } else {
+            request.header(CONTENT_TYPE, "application/json");
+            request.POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+
+        try {
+            return new Response(client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while sending " + url));
+        }
+    }
+
+    /**
+     * Returns the underlying HTTP client.
+     *
+     * @return the HTTP client
+     */
+    public HttpClient getClient() {
+        return client;
+    }
+
+    private static final class Default {
+
+        private static final GithubHttpClientTransport INSTANCE = new GithubHttpClientTransport();
+    }
+
+    private static final class Response implements GithubResponse {
+
+        private final HttpResponse<InputStream> r;
+
+        Response(HttpResponse<InputStream> r) {
+            this.r = r;
+        }
+
+        @Override
+        public int getStatus() {
+            return r.statusCode();
+        }
+
+        @Override
+        public String getHeader(HTTPHeader header) {
+            return r.headers().firstValue(header.getName()).orElse(null);
+        }
+
+        @Override
+        public InputStream getBody() {
+            InputStream in = r.body();
+            if (!GZIP.equalsIgnoreCase(r.headers().firstValue(CONTENT_ENCODING).orElse(null))) return in;
+
+            try {
+                return new GZIPInputStream(in);
+            } catch (EOFException e) {
+                // a compressed response without a body, like a 304
+                return InputStream.nullInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
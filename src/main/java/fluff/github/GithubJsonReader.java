@@ -0,0 +1,421 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A minimal pull reader over a JSON document.
+ * <p>
+ * The document is read token by token from a fixed-size buffer. Values that are not requested are
+ * skipped in place, without allocating, so only the fields a model actually uses are materialized.
+ * The nesting of the document is tracked so missing, repeated or trailing separators are rejected.
+ */
+final class GithubJsonReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // what the reader expects next in the enclosing scope
+    private static final int DOCUMENT = 0;
+    private static final int ARRAY_FIRST = 1;
+    private static final int ARRAY_NEXT = 2;
+    private static final int ARRAY_ELEMENT = 3;
+    private static final int OBJECT_FIRST = 4;
+    private static final int OBJECT_NEXT = 5;
+    private static final int OBJECT_NAME = 6;
+    private static final int OBJECT_VALUE = 7;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    private final StringBuilder sb = new StringBuilder();
+
+    private int[] scopes = new int[32];
+    private int depth = 1;
+
+    GithubJsonReader(InputStream in) {
+        this.in = new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    void beginObject() throws IOException {
+        peekValue();
+        expect('{');
+        push(OBJECT_FIRST);
+    }
+
+    /**
+     * Consumes the end of an object.
+     */
+    void endObject() throws IOException {
+        end(OBJECT_FIRST, OBJECT_NEXT, '}');
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    void beginArray() throws IOException {
+        peekValue();
+        expect('[');
+        push(ARRAY_FIRST);
+    }
+
+    /**
+     * Consumes the end of an array.
+     */
+    void endArray() throws IOException {
+        end(ARRAY_FIRST, ARRAY_NEXT, ']');
+    }
+
+    /**
+     * Checks if the current object or array has another element.
+     *
+     * @return true if another name or value follows, false if the object or array ends
+     */
+    boolean hasNext() throws IOException {
+        int c = peekElement();
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    /**
+     * Checks if the next value is null.
+     *
+     * @return true if the next value is the null literal, false otherwise
+     */
+    boolean peekNull() throws IOException {
+        return peekElement() == 'n';
+    }
+
+    /**
+     * Reads the next property name and consumes the following colon.
+     *
+     * @return the property name
+     */
+    String nextName() throws IOException {
+        peekName();
+        String name = readString();
+        expect(':');
+        scopes[depth - 1] = OBJECT_VALUE;
+        return name;
+    }
+
+    /**
+     * Reads the next string value.
+     *
+     * @return the string, or null if the value is the null literal
+     */
+    String nextString() throws IOException {
+        int c = peekValue();
+        if (c == 'n') {
+            skipLiteral();
+            afterValue();
+            return null;
+        }
+        if (c != '"') throw syntax("string");
+
+        String value = readString();
+        afterValue();
+        return value;
+    }
+
+    /**
+     * Reads the string literal at the current position.
+     */
+    private String readString() throws IOException {
+        pos++;
+
+        sb.setLength(0);
+        while (true) {
+            if (pos >= limit && !fill()) throw syntax("end of string");
+
+            int start = pos;
+            while (pos < limit) {
+                char ch = buffer[pos];
+                if (ch == '"' || ch == '\\') break;
+                pos++;
+            }
+            sb.append(buffer, start, pos - start);
+            if (pos >= limit) continue;
+
+            char ch = buffer[pos++];
+            if (ch == '"') return sb.toString();
+            sb.append(escape());
+        }
+    }
+
+    /**
+     * Reads the next integral number value.
+     *
+     * @return the number, or 0 if the value is the null literal
+     * @throws IOException if the value is not an integral number within the range of a long
+     */
+    long nextLong() throws IOException {
+        int c = peekValue();
+        if (c == 'n') {
+            literal("null", "integral number");
+            afterValue();
+            return 0;
+        }
+
+        boolean negative = c == '-';
+        if (negative) pos++;
+
+        // accumulated negatively, as Long.MIN_VALUE has no positive counterpart
+        long value = 0;
+        int digits = 0;
+        while (pos < limit || fill()) {
+            char ch = buffer[pos];
+            if (ch < '0' || ch > '9') break;
+
+            int digit = ch - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) throw syntax("number within the range of a long");
+            value = value * 10 - digit;
+            pos++;
+            digits++;
+        }
+        if (digits == 0 || !atDelimiter()) throw syntax("integral number");
+        if (!negative && value == Long.MIN_VALUE) throw syntax("number within the range of a long");
+
+        afterValue();
+        return negative ? value : -value;
+    }
+
+    /**
+     * Reads the next integral number value.
+     *
+     * @return the number, or 0 if the value is the null literal
+     * @throws IOException if the value is not an integral number within the range of an int
+     */
+    int nextInt() throws IOException {
+        long value = nextLong();
+        if ((int) value != value) throw syntax("number within the range of an int");
+        return (int) value;
+    }
+
+    /**
+     * Reads the next boolean value.
+     *
+     * @return the boolean, or false if the value is the null literal
+     * @throws IOException if the value is not one of the true, false or null literals
+     */
+    boolean nextBoolean() throws IOException {
+        int c = peekValue();
+        String literal = switch (c) {
+            case 't' -> "true";
+            case 'f' -> "false";
+            case 'n' -> "null";
+            default -> throw syntax("boolean");
+        };
+        literal(literal, "boolean");
+        afterValue();
+        return c == 't';
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays, without allocating.
+     */
+    void skipValue() throws IOException {
+        switch (peekValue()) {
+            case '{' -> {
+                beginObject();
+                while (hasNext()) {
+                    peekName();
+                    pos++;
+                    skipString();
+                    expect(':');
+                    scopes[depth - 1] = OBJECT_VALUE;
+                    skipValue();
+                }
+                endObject();
+            }
+            case '[' -> {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            }
+            case '"' -> {
+                pos++;
+                skipString();
+                afterValue();
+            }
+            default -> {
+                skipLiteral();
+                afterValue();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            if (pos >= limit && !fill()) throw syntax("end of string");
+
+            char ch = buffer[pos++];
+            if (ch == '"') return;
+            if (ch == '\\') {
+                if (pos >= limit && !fill()) throw syntax("escape");
+                pos++;
+            }
+        }
+    }
+
+    private void skipLiteral() throws IOException {
+        while (true) {
+            if (pos >= limit && !fill()) return;
+
+            char ch = buffer[pos];
+            if (ch == ',' || ch == '}' || ch == ']' || ch == ':' || isWhitespace(ch)) return;
+            pos++;
+        }
+    }
+
+    /**
+     * Consumes a literal, which must be followed by a delimiter or the end of the document.
+     */
+    private void literal(String literal, String expected) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (pos >= limit && !fill() || buffer[pos] != literal.charAt(i)) throw syntax(expected);
+            pos++;
+        }
+        if (!atDelimiter()) throw syntax(expected);
+    }
+
+    private boolean atDelimiter() throws IOException {
+        if (pos >= limit && !fill()) return true;
+
+        char ch = buffer[pos];
+        return ch == ',' || ch == '}' || ch == ']' || isWhitespace(ch);
+    }
+
+    private char escape() throws IOException {
+        if (pos >= limit && !fill()) throw syntax("escape");
+
+        char ch = buffer[pos++];
+        return switch (ch) {
+            case 'n' -> '\n';
+            case 't' -> '\t';
+            case 'r' -> '\r';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (pos >= limit && !fill()) throw syntax("unicode escape");
+                    value = (value << 4) | Character.digit(buffer[pos++], 16);
+                }
+                yield (char) value;
+            }
+            default -> ch;
+        };
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peekSkipping() != expected) throw syntax("'" + expected + "'");
+        pos++;
+    }
+
+    /**
+     * Returns the first character of the next element of the enclosing scope without consuming it, consuming
+     * the separator in front of it. Returns the closing bracket if the scope ends, which is only allowed
+     * where no separator was consumed.
+     */
+    private int peekElement() throws IOException {
+        int c = peekSkipping();
+        int scope = scopes[depth - 1];
+        if (scope == ARRAY_NEXT || scope == OBJECT_NEXT) {
+            if (c == ']' || c == '}') return c;
+            if (c != ',') throw syntax("',' or end of " + (scope == ARRAY_NEXT ? "array" : "object"));
+            pos++;
+
+            scopes[depth - 1] = scope == ARRAY_NEXT ? ARRAY_ELEMENT : OBJECT_NAME;
+            c = peekSkipping();
+            if (c == ']' || c == '}') throw syntax(scope == ARRAY_NEXT ? "value" : "name");
+        }
+        return c;
+    }
+
+    /**
+     * Returns the first character of the next value without consuming it, failing if a name or the end of a
+     * scope is next instead.
+     */
+    private int peekValue() throws IOException {
+        int c = peekElement();
+        int scope = scopes[depth - 1];
+        if (scope == OBJECT_FIRST || scope == OBJECT_NEXT || scope == OBJECT_NAME) throw syntax("name");
+        if (c == -1 || c == ',' || c == ':' || c == ']' || c == '}') throw syntax("value");
+        return c;
+    }
+
+    private void peekName() throws IOException {
+        int c = peekElement();
+        int scope = scopes[depth - 1];
+        if (scope != OBJECT_FIRST && scope != OBJECT_NAME || c != '"') throw syntax("name");
+    }
+
+    private void afterValue() {
+        int scope = scopes[depth - 1];
+        if (scope == ARRAY_FIRST || scope == ARRAY_ELEMENT) scopes[depth - 1] = ARRAY_NEXT;
+        else if (scope == OBJECT_VALUE) scopes[depth - 1] = OBJECT_NEXT;
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) scopes = Arrays.copyOf(scopes, depth * 2);
+        scopes[depth++] = scope;
+    }
+
+    private void end(int first, int next, char bracket) throws IOException {
+        int c = peekElement();
+        int scope = scopes[depth - 1];
+        if (scope != first && scope != next || c != bracket) throw syntax("'" + bracket + "'");
+        pos++;
+
+        depth--;
+        afterValue();
+    }
+
+    /**
+     * Skips whitespace, returning the next significant character without consuming it.
+     */
+    private int peekSkipping() throws IOException {
+        while (true) {
+            if (pos >= limit && !fill()) return -1;
+
+            char ch = buffer[pos];
+            if (!isWhitespace(ch)) return ch;
+            pos++;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            pos = limit = 0;
+            return false;
+        }
+
+        pos = 0;
+        limit = read;
+        return true;
+    }
+
+    private static boolean isWhitespace(char ch) {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    private IOException syntax(String expected) {
+        return new IOException("Malformed JSON: expected " + expected);
+    }
+}
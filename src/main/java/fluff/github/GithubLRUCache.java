@@ -0,0 +1,124 @@
+package fluff.github;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded {@link GithubResponseCache} that evicts the least recently used entry.
+ */
+public class GithubLRUCache implements GithubResponseCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * Constructs a new GithubLRUCache holding at most the specified number of entries.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    public GithubLRUCache(int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > GithubLRUCache.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Entry get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) misses.increment();
+        return entry;
+    }
+
+    @Override
+    public void put(String key, Entry entry) {
+        Entry previous;
+        synchronized (entries) {
+            previous = entries.put(key, entry);
+        }
+
+        // the previous entry was found by get() but GitHub sent a new body, so the lookup missed
+        if (previous != null) misses.increment();
+    }
+
+    @Override
+    public void invalidate(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public void revalidated(String key, Entry entry) {
+        hits.increment();
+        notModified.increment();
+    }
+
+    /**
+     * Returns the number of entries currently in the cache.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries of the cache.
+     *
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache, once GitHub confirmed their entry was up to date.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no entry, or an entry GitHub replaced with a new body.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries that GitHub confirmed as unchanged with {@code 304 Not Modified}.
+     *
+     * @return the number of not modified responses
+     */
+    public long getNotModified() {
+        return notModified.sum();
+    }
+}
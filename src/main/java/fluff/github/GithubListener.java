@@ -0,0 +1,47 @@
+package fluff.github;
+
+/**
+ * Observes the requests of a {@link Github} client.
+ * <p>
+ * The listener is called on the requesting thread once the final response of a call is received, and
+ * for every attempt failing without a response before it is retried or thrown, so it should return
+ * quickly. Exceptions thrown by the listener do not fail the call, they are passed to the uncaught
+ * exception handler of the requesting thread. When no listener is set, the client does not
+ * measure or build anything for it.
+ */
+@FunctionalInterface
+public interface GithubListener {
+
+    /**
+     * Called when a call completed.
+     *
+     * @param call the completed call
+     */
+    void onCall(GithubCall call);
+
+    /**
+     * Returns a listener calling this listener and then another one.
+     *
+     * @param other the listener to call next
+     * @return the combined listener
+     */
+    default GithubListener andThen(GithubListener other) {
+        return call -> {
+            try {
+                onCall(call);
+            } finally {
+                other.onCall(call);
+            }
+        };
+    }
+
+    /**
+     * Returns a listener recording each call as a {@code fluff.github.Call} Java Flight Recorder event.
+     * Nothing is recorded while the event is disabled.
+     *
+     * @return the flight recorder listener
+     */
+    static GithubListener jfr() {
+        return GithubCallEvent::commit;
+    }
+}
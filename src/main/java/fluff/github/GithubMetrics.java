@@ -0,0 +1,160 @@
+package fluff.github;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link GithubListener} aggregating calls per endpoint template.
+ * <p>
+ * For each endpoint it counts calls, status codes, retries, cache revalidations and response bytes,
+ * and records the latency of the calls in a {@link GithubHistogram}. It also keeps the last remaining
+ * rate limit budget reported for each resource.
+ */
+public class GithubMetrics implements GithubListener {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, Long> remaining = new ConcurrentHashMap<>();
+
+    @Override
+    public void onCall(GithubCall call) {
+        endpoints.computeIfAbsent(call.getEndpoint(), k -> new Endpoint()).record(call);
+        if (call.getResource() != null && call.getRemaining() >= 0) remaining.put(call.getResource(), call.getRemaining());
+    }
+
+    /**
+     * Returns the metrics of an endpoint.
+     *
+     * @param endpoint the endpoint template (e.g., {@code repos/{owner}/{repo}/branches})
+     * @return the endpoint metrics, or null if no call was made to it
+     */
+    public Endpoint getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * Returns the metrics of all endpoints called so far.
+     *
+     * @return an unmodifiable map of endpoint metrics by endpoint template
+     */
+    public Map<String, Endpoint> getEndpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * Returns the last remaining rate limit budget reported for a resource.
+     *
+     * @param resource the rate limit resource (e.g., {@link GithubRateLimiter#CORE})
+     * @return the number of remaining requests, or -1 if no response reported it yet
+     */
+    public long getRemaining(String resource) {
+        return remaining.getOrDefault(resource, -1L);
+    }
+
+    /**
+     * Removes all recorded metrics.
+     */
+    public void reset() {
+        endpoints.clear();
+        remaining.clear();
+    }
+
+    /**
+     * The metrics of a single endpoint template.
+     */
+    public static class Endpoint {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder revalidated = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final GithubHistogram latency = new GithubHistogram();
+
+        Endpoint() {}
+
+        void record(GithubCall call) {
+            calls.increment();
+            if (call.getStatus() >= 400) errors.increment();
+            retries.add(call.getRetries());
+            if (call.getCacheOutcome() == GithubCall.CacheOutcome.REVALIDATED) revalidated.increment();
+            if (call.getResponseSize() > 0) bytes.add(call.getResponseSize());
+            statuses.computeIfAbsent(call.getStatus(), k -> new LongAdder()).increment();
+            latency.record(call.getLatency());
+        }
+
+        /**
+         * Returns the number of calls.
+         *
+         * @return the number of calls
+         */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * Returns the number of calls that ended with a client or server error status.
+         *
+         * @return the number of failed calls
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * Returns the number of requests sent again after the first one of a call.
+         *
+         * @return the number of retries
+         */
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /**
+         * Returns the number of calls answered with {@code 304 Not Modified} for a cached response.
+         *
+         * @return the number of revalidated calls
+         */
+        public long getRevalidated() {
+            return revalidated.sum();
+        }
+
+        /**
+         * Returns the number of response bytes announced by the calls.
+         *
+         * @return the number of bytes
+         */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        /**
+         * Returns the number of calls per final status code.
+         *
+         * @return a sorted map of call counts by status code
+         */
+        public Map<Integer, Long> getStatuses() {
+            Map<Integer, Long> map = new TreeMap<>();
+            statuses.forEach((status, count) -> map.put(status, count.sum()));
+            return map;
+        }
+
+        /**
+         * Returns the latency histogram of the calls, in nanoseconds.
+         *
+         * @return the latency histogram
+         */
+        public GithubHistogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return "Endpoint[calls=" + getCalls() + ", errors=" + getErrors() + ", p50=" + latency.getValueAt(0.5) / 1_000_000
+                    + "ms, p99=" + latency.getValueAt(0.99) / 1_000_000 + "ms]";
+        }
+    }
+}
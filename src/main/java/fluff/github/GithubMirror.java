@@ -0,0 +1,209 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Mirrors the files of a branch to a local directory.
+ * <p>
+ * The branch is pinned to its head commit and listed with a single tree request, local files whose
+ * git blob SHA already matches are skipped, the remaining files are downloaded in parallel and moved
+ * into place atomically, and local files that no longer exist in the branch are deleted. When most of
+ * the branch changed, the changed files are extracted from the branch archive instead of being
+ * downloaded one by one.
+ * <p>
+ * Files are only deleted after a complete listing and when every file was mirrored, so a failed request
+ * never removes local files that still exist in the branch.
+ */
+final class GithubMirror {
+
+    private final GithubBranch branch;
+    private final Path target;
+    private final GithubMirrorOptions options;
+
+    private final AtomicInteger downloaded = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicInteger extractFailures = new AtomicInteger();
+    private final LongAdder bytes = new LongAdder();
+    private final List<String> failed = Collections.synchronizedList(new ArrayList<>());
+
+    GithubMirror(GithubBranch branch, Path target, GithubMirrorOptions options) {
+        this.branch = branch;
+        this.target = target.toAbsolutePath().normalize();
+        this.options = options;
+    }
+
+    GithubMirrorResult run() {
+        GithubBranch pinned = branch.pinned();
+        if (pinned == null) return null;
+
+        List<GithubTreeEntry> tree = pinned.tree(options.getDirPath());
+        if (tree == null) return null;
+
+        Set<Path> expected = new HashSet<>();
+        Map<String, Path> stale = new ConcurrentHashMap<>();
+        Map<String, GithubTreeEntry> entries = new HashMap<>();
+        try (ExecutorService executor = executor()) {
+            for (GithubTreeEntry entry : tree) {
+                if (!entry.isBlob() || !options.getFilter().test(entry.getPath())) continue;
+
+                Path file = resolve(entry.getPath());
+                if (file == null) {
+                    failed.add(entry.getPath());
+                    continue;
+                }
+
+                expected.add(file);
+                entries.put(entry.getPath(), entry);
+                executor.execute(() -> {
+                    if (isUpToDate(entry, file)) skipped.incrementAndGet();
+                    else stale.put(entry.getPath(), file);
+                });
+            }
+        }
+
+        if (options.isArchiveAllowed() && options.getDirPath() == null && GithubArchive.prefersArchive(
+                stale.keySet().stream().map(entries::get).toList(), tree)) {
+            extract(pinned, stale, entries);
+        }
+
+        try (ExecutorService executor = executor()) {
+            for (Map.Entry<String, Path> e : stale.entrySet()) {
+                executor.execute(() -> download(entries.get(e.getKey()), e.getValue()));
+            }
+        }
+
+        // the listing is complete, but a file that failed may have been left out of the expected set
+        if (options.isDeleteRemoved() && failed.isEmpty() && extractFailures.get() == 0) deleteRemoved(expected);
+
+        return new GithubMirrorResult(downloaded.get(), skipped.get(), deleted.get(), bytes.sum(), failed, extractFailures.get());
+    }
+
+    private ExecutorService executor() {
+        return Executors.newFixedThreadPool(options.getParallelism(), Thread.ofVirtual().name("github-mirror-", 0).factory());
+    }
+
+    private boolean isUpToDate(GithubTreeEntry entry, Path file) {
+        try {
+            return Files.isRegularFile(file) && Files.size(file) == entry.getSize()
+                    && entry.getSHA().equals(GithubBlobStore.sha(file));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void download(GithubTreeEntry entry, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            long size = entry.rawFile().downloadTo(file);
+            if (size < 0) {
+                failed.add(entry.getPath());
+                return;
+            }
+
+            downloaded.incrementAndGet();
+            bytes.add(size);
+        } catch (IOException | UncheckedIOException e) {
+            failed.add(entry.getPath());
+        }
+    }
+
+    /**
+     * Extracts the stale files from the branch archive, removing every file it could write from the map.
+     * Files missing from the archive, not matching their SHA or failing to be written are left for per-file
+     * downloads, and each failure is counted.
+     */
+    private void extract(GithubBranch pinned, Map<String, Path> stale, Map<String, GithubTreeEntry> entries) {
+        try (GithubArchive archive = pinned.archive()) {
+            if (archive == null) {
+                extractFailures.incrementAndGet();
+                return;
+            }
+
+            while (archive.hasNext() && !stale.isEmpty()) {
+                GithubArchive.Entry entry = archive.next();
+                Path file = stale.get(entry.getPath());
+                if (file == null || entry.isDirectory() || entry.getLinkTarget() != null) continue;
+
+                try {
+                    extract(entry, file, entries.get(entry.getPath()).getSHA());
+                    stale.remove(entry.getPath());
+                } catch (IOException | UncheckedIOException e) {
+                    extractFailures.incrementAndGet();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            extractFailures.incrementAndGet();
+        }
+    }
+
+    private void extract(GithubArchive.Entry entry, Path file, String sha) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+        try {
+            long size = Files.copy(entry.getInputStream(), tmp, StandardCopyOption.REPLACE_EXISTING);
+            if (!sha.equals(GithubBlobStore.sha(tmp))) throw new IOException("Archived content of " + entry.getPath() + " does not match its SHA " + sha);
+
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            downloaded.incrementAndGet();
+            bytes.add(size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void deleteRemoved(Set<Path> expected) {
+        String dirPath = options.getDirPath();
+        Path scope = dirPath == null || dirPath.isEmpty() ? target : resolve(dirPath);
+        if (scope == null || !Files.isDirectory(scope)) return;
+
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(scope)) {
+            paths = walk.sorted(Comparator.reverseOrder()).toList();
+        } catch (IOException e) {
+            failed.add(target.relativize(scope).toString().replace('\\', '/'));
+            return;
+        }
+
+        for (Path path : paths) {
+            String relative = target.relativize(path).toString().replace('\\', '/');
+            try {
+                if (Files.isRegularFile(path)) {
+                    if (expected.contains(path) || !options.getFilter().test(relative)) continue;
+
+                    Files.delete(path);
+                    deleted.incrementAndGet();
+                } else if (Files.isDirectory(path) && !path.equals(scope)) {
+                    try (Stream<Path> children = Files.list(path)) {
+                        if (children.findAny().isEmpty()) Files.delete(path);
+                    }
+                }
+            } catch (IOException e) {
+                failed.add(relative);
+            }
+        }
+    }
+
+    private Path resolve(String path) {
+        Path file = target.resolve(path).normalize();
+        return file.startsWith(target) ? file : null;
+    }
+}
@@ -0,0 +1,119 @@
+package fluff.github;
+
+import java.util.function.Predicate;
+
+/**
+ * Options of a {@link GithubBranch#mirrorTo(java.nio.file.Path, GithubMirrorOptions)} operation.
+ */
+public class GithubMirrorOptions {
+
+    private String dirPath;
+    private Predicate<String> filter = path -> true;
+    private int parallelism = 8;
+    private boolean deleteRemoved = true;
+    private boolean archiveAllowed = true;
+
+    /**
+     * Sets the directory of the branch to mirror.
+     *
+     * @param dirPath the path to the directory, or null to mirror the whole branch
+     * @return these options
+     */
+    public GithubMirrorOptions setDirPath(String dirPath) {
+        this.dirPath = dirPath;
+        return this;
+    }
+
+    /**
+     * Sets the filter selecting which files are mirrored.
+     *
+     * @param filter the predicate tested against each file's path relative to the repository root
+     * @return these options
+     */
+    public GithubMirrorOptions setFilter(Predicate<String> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of files downloaded at the same time.
+     *
+     * @param parallelism the number of parallel downloads
+     * @return these options
+     */
+    public GithubMirrorOptions setParallelism(int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be positive");
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets whether local files that no longer exist in the branch are deleted.
+     *
+     * @param deleteRemoved true to delete removed files, false to keep them
+     * @return these options
+     */
+    public GithubMirrorOptions setDeleteRemoved(boolean deleteRemoved) {
+        this.deleteRemoved = deleteRemoved;
+        return this;
+    }
+
+    /**
+     * Sets whether the changed files may be fetched from the branch archive with a single request
+     * when that is estimated to be cheaper than downloading them one by one.
+     *
+     * @param archiveAllowed true to allow the archive, false to always download files one by one
+     * @return these options
+     * @see GithubArchive#prefersArchive(java.util.Collection, java.util.Collection)
+     */
+    public GithubMirrorOptions setArchiveAllowed(boolean archiveAllowed) {
+        this.archiveAllowed = archiveAllowed;
+        return this;
+    }
+
+    /**
+     * Returns the directory of the branch to mirror.
+     *
+     * @return the path to the directory, or null if the whole branch is mirrored
+     */
+    public String getDirPath() {
+        return dirPath;
+    }
+
+    /**
+     * Returns the filter selecting which files are mirrored.
+     *
+     * @return the file filter
+     */
+    public Predicate<String> getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the maximum number of files downloaded at the same time.
+     *
+     * @return the number of parallel downloads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns whether local files that no longer exist in the branch are deleted.
+     *
+     * @return true if removed files are deleted, false otherwise
+     */
+    public boolean isDeleteRemoved() {
+        return deleteRemoved;
+    }
+
+    /**
+     * Returns whether the changed files may be fetched from the branch archive.
+     *
+     * @return true if the archive is allowed, false otherwise
+     */
+    public boolean isArchiveAllowed() {
+        return archiveAllowed;
+    }
+}
@@ -0,0 +1,98 @@
+package fluff.github;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link GithubBranch#mirrorTo(java.nio.file.Path, GithubMirrorOptions)} operation.
+ */
+public class GithubMirrorResult {
+
+    private final int downloaded;
+    private final int skipped;
+    private final int deleted;
+    private final long bytes;
+    private final List<String> failed;
+    private final int extractFailures;
+
+    /**
+     * Constructs a new GithubMirrorResult.
+     *
+     * @param downloaded the number of files downloaded
+     * @param skipped the number of files already up to date
+     * @param deleted the number of local files deleted
+     * @param bytes the number of bytes downloaded
+     * @param failed the paths of the files that could not be mirrored or deleted
+     * @param extractFailures the number of failures extracting files from the branch archive
+     */
+    GithubMirrorResult(int downloaded, int skipped, int deleted, long bytes, List<String> failed, int extractFailures) {
+        this.downloaded = downloaded;
+        this.skipped = skipped;
+        this.deleted = deleted;
+        this.bytes = bytes;
+        this.failed = List.copyOf(failed);
+        this.extractFailures = extractFailures;
+    }
+
+    /**
+     * Returns the number of files downloaded.
+     *
+     * @return the number of downloaded files
+     */
+    public int getDownloaded() {
+        return downloaded;
+    }
+
+    /**
+     * Returns the number of files whose local copy already matched the branch.
+     *
+     * @return the number of skipped files
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the number of local files deleted because they no longer exist in the branch.
+     *
+     * @return the number of deleted files
+     */
+    public int getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Returns the number of bytes downloaded.
+     *
+     * @return the number of bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the paths of the files that could not be mirrored or deleted. When any file failed, no local
+     * file was deleted.
+     *
+     * @return the failed paths, relative to the repository root
+     */
+    public List<String> getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the number of failures extracting files from the branch archive, such as an interrupted archive
+     * or content not matching its SHA. The files affected were downloaded one by one instead, but no local
+     * file was deleted.
+     *
+     * @return the number of extract failures
+     */
+    public int getExtractFailures() {
+        return extractFailures;
+    }
+
+    @Override
+    public String toString() {
+        return "downloaded=" + downloaded + ", skipped=" + skipped + ", deleted=" + deleted + ", bytes=" + bytes + ", failed=" + failed.size()
+                + ", extractFailures=" + extractFailures;
+    }
+}
@@ -0,0 +1,56 @@
+package fluff.github;
+
+import java.util.List;
+
+import fluff.http.path.URLPath;
+
+/**
+ * A single page of a paginated GitHub API listing.
+ *
+ * @param <T> the type of the listed elements
+ */
+final class GithubPage<T> {
+
+    final List<T> items;
+    final URLPath next;
+
+    GithubPage(List<T> items, URLPath next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * Reads a page from a response, binding its elements straight from the body and following
+     * the {@code rel="next"} entry of its {@code Link} header.
+     *
+     * @param r the response
+     * @param binder the binder of the listed elements
+     * @return the page
+     */
+    static <T> GithubPage<T> of(GithubResponse r, GithubBinder<T> binder) {
+        List<T> items = binder.readArray(r.getBody());
+        return new GithubPage<>(items, next(GithubHeaders.get(r, GithubHeaders.LINK)));
+    }
+
+    /**
+     * Extracts the {@code rel="next"} URL from a {@code Link} header.
+     *
+     * @param link the Link header value (can be null)
+     * @return the next page URL, or null if this is the last page
+     */
+    static URLPath next(String link) {
+        if (link == null) return null;
+
+        for (String part : link.split(",")) {
+            int end = part.indexOf('>');
+            int start = part.indexOf('<');
+            if (start < 0 || end < start) continue;
+
+            String params = part.substring(end + 1);
+            if (params.contains("rel=\"next\"")) {
+                return URLPath.of(part.substring(start + 1, end));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,152 @@
+package fluff.github;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import fluff.http.path.URLPath;
+
+/**
+ * A lazy iterator over a paginated GitHub API listing.
+ * <p>
+ * Pages are requested one at a time by following the {@code rel="next"} link of the previous page.
+ * While the caller consumes a page, the next one is fetched in the background, so at most two pages
+ * are held in memory at any time.
+ *
+ * @param <T> the type of the listed elements
+ */
+public class GithubPages<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * The number of elements requested per page, the maximum allowed by GitHub.
+     */
+    public static final int PER_PAGE = 100;
+
+    private static final ExecutorService PREFETCH = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("github-prefetch-", 0).factory());
+
+    private final Github gh;
+    private final GithubBinder<T> binder;
+
+    private URLPath first;
+    private GithubPage<T> page;
+    private int index;
+    private CompletableFuture<GithubPage<T>> prefetch;
+    private boolean missing;
+    private boolean closed;
+
+    /**
+     * Constructs a new GithubPages instance starting at the specified URL.
+     *
+     * @param gh the Github client instance
+     * @param first the URL of the first page
+     * @param binder the binder of the listed elements
+     */
+    GithubPages(Github gh, URLPath first, GithubBinder<T> binder) {
+        this.gh = gh;
+        this.first = first;
+        this.binder = binder;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) return false;
+
+        if (first != null) {
+            URLPath path = first;
+            first = null;
+
+            load(fetch(path));
+            missing = page == null;
+        }
+
+        while (page != null && index >= page.items.size()) {
+            if (prefetch == null) {
+                page = null;
+                break;
+            }
+
+            GithubPage<T> next = prefetch.join();
+            prefetch = null;
+            if (next == null) throw new IllegalStateException("Failed to fetch the next page of a GitHub listing");
+
+            load(next);
+        }
+        return page != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        return page.items.get(index++);
+    }
+
+    /**
+     * Returns a sequential stream over the remaining elements. Closing the stream closes this iterator.
+     *
+     * @return the stream of elements
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Stops the iteration and cancels any page being fetched in the background.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        page = null;
+        if (prefetch != null) {
+            prefetch.cancel(true);
+            prefetch = null;
+        }
+    }
+
+    /**
+     * Collects all remaining elements into a list.
+     *
+     * @return the list of elements, or null if the first page does not exist
+     */
+    List<T> toList() {
+        List<T> list = new ArrayList<>();
+        while (hasNext()) {
+            list.add(next());
+        }
+        return missing ? null : list;
+    }
+
+    private void load(GithubPage<T> page) {
+        this.page = page;
+        this.index = 0;
+
+        if (page != null && page.next != null) {
+            URLPath next = page.next;
+            prefetch = CompletableFuture.supplyAsync(() -> fetch(next), PREFETCH);
+        }
+    }
+
+    private GithubPage<T> fetch(URLPath path) {
+        return gh.get(path, GithubPage.class, r -> GithubPage.of(r, binder));
+    }
+
+    /**
+     * Appends the maximum page size to a listing URL.
+     *
+     * @param path the listing path relative to the API base
+     * @return the path with the page size query parameter
+     */
+    static String perPage(String path) {
+        return path + (path.contains("?") ? "&" : "?") + "per_page=" + PER_PAGE;
+    }
+}
@@ -0,0 +1,221 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+import fluff.http.head.HTTPHeader;
+import fluff.http.path.URLPath;
+
+/**
+ * Downloads a file of known size in several HTTP {@code Range} requests sent at the same time.
+ * <p>
+ * Every range is written into its own region of a {@code .part} file preallocated to the full size. The
+ * position reached by each range is checkpointed in a {@code .ranges} file every few megabytes or every
+ * second, whichever comes first, and at the end of the range. The data is flushed to disk before each
+ * checkpoint, so an interrupted download resumes each range from its last checkpoint. The {@code .ranges}
+ * file starts with the size of the download and the number of ranges, and a download split differently is
+ * started over. Every partial response must answer exactly the range requested, of a file of the same size.
+ */
+final class GithubRangedDownload {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long CHECKPOINT_SIZE = 4 * 1024 * 1024;
+    private static final long CHECKPOINT_INTERVAL = 1_000_000_000;
+    private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int OK = 200;
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int NOT_FOUND = 404;
+
+    private final Github gh;
+    private final URLPath url;
+    private final Map<HTTPHeader, String> headers;
+    private final long size;
+
+    /**
+     * Constructs a new GithubRangedDownload.
+     *
+     * @param gh the Github client instance
+     * @param url the URL of the file
+     * @param headers the headers sent with every range request
+     * @param size the size of the file in bytes
+     */
+    GithubRangedDownload(Github gh, URLPath url, Map<HTTPHeader, String> headers, long size) {
+        this.gh = gh;
+        this.url = url;
+        this.headers = headers;
+        this.size = size;
+    }
+
+    /**
+     * Downloads the file and moves it into place once every range is complete.
+     *
+     * @param target the file to download to
+     * @param ranges the number of ranges to split the file into
+     * @param progress receives the number of bytes downloaded so far (can be null)
+     * @return the size of the downloaded file, or -1 if the file does not exist
+     */
+    long downloadTo(Path target, int ranges, LongConsumer progress) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Path state = target.resolveSibling(target.getFileName() + ".ranges");
+
+        long[] positions = resume(part, state, ranges);
+        boolean found;
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                FileChannel positionsOut = FileChannel.open(state, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (positions == null) {
+                positions = new long[ranges];
+                for (int i = 0; i < ranges; i++) {
+                    positions[i] = start(i, ranges);
+                }
+                out.truncate(0);
+                if (size > 0) out.write(ByteBuffer.allocate(1), size - 1);
+                writeState(positionsOut, positions);
+            }
+
+            AtomicLong downloaded = new AtomicLong();
+            for (int i = 0; i < ranges; i++) {
+                downloaded.addAndGet(positions[i] - start(i, ranges));
+            }
+
+            AtomicBoolean missing = new AtomicBoolean();
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            long[] reached = positions;
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-range-", 0).factory())) {
+                for (int i = 0; i < ranges; i++) {
+                    if (reached[i] >= start(i + 1, ranges)) continue;
+
+                    int range = i;
+                    executor.execute(() -> {
+                        try {
+                            if (!download(out, positionsOut, range, ranges, reached[range], downloaded, progress)) missing.set(true);
+                        } catch (IOException e) {
+                            if (!failure.compareAndSet(null, e)) failure.get().addSuppressed(e);
+                        } catch (RuntimeException e) {
+                            IOException wrapped = new IOException("Failed to download a range of " + url, e);
+                            if (!failure.compareAndSet(null, wrapped)) failure.get().addSuppressed(wrapped);
+                        }
+                    });
+                }
+            }
+
+            if (failure.get() != null && !missing.get()) throw failure.get();
+
+            if (!missing.get() && (out.size() != size || downloaded.get() != size)) {
+                throw new IOException("Downloaded " + downloaded.get() + " of " + size + " bytes of " + url);
+            }
+            found = !missing.get();
+        }
+
+        if (!found) {
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(state);
+            return -1;
+        }
+
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(state);
+        return size;
+    }
+
+    private boolean download(FileChannel out, FileChannel positionsOut, int range, int ranges, long position,
+            AtomicLong downloaded, LongConsumer progress) throws IOException {
+        long end = start(range + 1, ranges);
+
+        Map<HTTPHeader, String> rangeHeaders = new HashMap<>(headers);
+        rangeHeaders.put(GithubHeaders.RANGE, "bytes=" + position + "-" + (end - 1));
+        GithubResponse r = gh.response(url, rangeHeaders);
+
+        int status = r.getStatus();
+        if (status == NOT_FOUND) {
+            Github.discard(r);
+            return false;
+        }
+        boolean whole = status == OK && position == 0 && end == size;
+        if (status != PARTIAL_CONTENT && !whole) {
+            Github.discard(r);
+            throw new IOException("Range request for " + url + " failed with status " + status);
+        }
+        if (status == PARTIAL_CONTENT) {
+            long[] contentRange = GithubHeaders.contentRange(r);
+            if (contentRange == null || contentRange[0] != position || contentRange[1] != end - 1 || contentRange[2] != size) {
+                Github.discard(r);
+                String got = GithubHeaders.get(r, GithubHeaders.CONTENT_RANGE);
+                throw new IOException("Range request for " + url + " expected bytes " + position + "-" + (end - 1) + "/" + size
+                        + " but got " + (got == null ? "no Content-Range" : got));
+            }
+        }
+
+        ByteBuffer saved = ByteBuffer.allocate(Long.BYTES);
+        try (InputStream in = r.getBody();
+                ReadableByteChannel src = Channels.newChannel(in)) {
+            long read;
+            long checkpoint = position;
+            long checkpointAt = System.nanoTime();
+            while (position < end && (read = out.transferFrom(src, position, Math.min(CHUNK_SIZE, end - position))) > 0) {
+                position += read;
+                if (position == end || position - checkpoint >= CHECKPOINT_SIZE || System.nanoTime() - checkpointAt >= CHECKPOINT_INTERVAL) {
+                    // the data must reach the disk before the position claiming it does
+                    out.force(false);
+                    positionsOut.write(saved.clear().putLong(0, position), HEADER_SIZE + (long) range * Long.BYTES);
+                    checkpoint = position;
+                    checkpointAt = System.nanoTime();
+                }
+
+                long total = downloaded.addAndGet(read);
+                if (progress != null) {
+                    synchronized (progress) {
+                        progress.accept(total);
+                    }
+                }
+            }
+        }
+
+        if (position < end) throw new IOException("Range " + range + " of " + url + " ended after " + position + " of " + end + " bytes");
+        return true;
+    }
+
+    private long[] resume(Path part, Path state, int ranges) throws IOException {
+        if (!Files.exists(part) || !Files.exists(state) || Files.size(part) != size) return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(state));
+        if (buffer.remaining() != HEADER_SIZE + ranges * Long.BYTES) return null;
+        if (buffer.getLong() != size || buffer.getInt() != ranges) return null;
+
+        long[] positions = new long[ranges];
+        for (int i = 0; i < ranges; i++) {
+            positions[i] = buffer.getLong();
+            if (positions[i] < start(i, ranges) || positions[i] > start(i + 1, ranges)) return null;
+        }
+        return positions;
+    }
+
+    private void writeState(FileChannel positionsOut, long[] positions) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + positions.length * Long.BYTES);
+        buffer.putLong(size).putInt(positions.length);
+        for (long position : positions) {
+            buffer.putLong(position);
+        }
+        positionsOut.truncate(0);
+        positionsOut.write(buffer.flip(), 0);
+    }
+
+    private long start(int range, int ranges) {
+        return size * range / ranges;
+    }
+}
@@ -0,0 +1,126 @@
+package fluff.github;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * A snapshot of a GitHub rate limit bucket, as reported by the {@code X-RateLimit-*} response headers.
+ */
+public class GithubRateLimit {
+
+    private final String resource;
+    private final int limit;
+    private final int remaining;
+    private final Instant reset;
+
+    /**
+     * Constructs a new GithubRateLimit snapshot.
+     *
+     * @param resource the rate limit resource (e.g., core, search, graphql)
+     * @param limit the maximum number of requests per window
+     * @param remaining the number of requests left in the current window
+     * @param reset the time at which the current window resets
+     */
+    public GithubRateLimit(String resource, int limit, int remaining, Instant reset) {
+        this.resource = resource;
+        this.limit = limit;
+        this.remaining = remaining;
+        this.reset = reset;
+    }
+
+    /**
+     * Returns the rate limit resource (e.g., core, search, graphql).
+     *
+     * @return the resource name
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Returns the maximum number of requests per window.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests left in the current window.
+     *
+     * @return the remaining requests
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Returns the time at which the current window resets.
+     *
+     * @return the reset time
+     */
+    public Instant getReset() {
+        return reset;
+    }
+
+    /**
+     * Reads a rate limit snapshot from the {@code X-RateLimit-*} headers of a response.
+     *
+     * @param r the response
+     * @param resource the resource the request was sent for, used if the response does not report one (can be null)
+     * @return the rate limit snapshot, or null if the response carries no rate limit headers
+     */
+    static GithubRateLimit of(GithubResponse r, String resource) {
+        String limit = GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_LIMIT);
+        String remaining = GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_REMAINING);
+        String reset = GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_RESET);
+        if (limit == null || remaining == null || reset == null) return null;
+
+        String reported = GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_RESOURCE);
+        if (reported != null) resource = reported;
+        if (resource == null) return null;
+
+        try {
+            return new GithubRateLimit(resource, Integer.parseInt(limit.trim()), Integer.parseInt(remaining.trim()),
+                    Instant.ofEpochSecond(Long.parseLong(reset.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a response was rejected because the primary rate limit of its token is exhausted.
+     *
+     * @param r the response
+     * @return true if the response is a 403 or 429 reporting no remaining requests, false otherwise
+     */
+    static boolean isExhausted(GithubResponse r) {
+        int status = r.getStatus();
+        return (status == 403 || status == 429) && "0".equals(GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_REMAINING));
+    }
+
+    /**
+     * Checks if a response was rejected by a secondary rate limit. GitHub does not always send a
+     * {@code Retry-After} header with these, so a {@code 403} without one is recognized by its error
+     * message, which is only read from a {@link GithubBufferedResponse}.
+     *
+     * @param r the response
+     * @return true if the response is a 403 or 429 caused by a secondary rate limit, false otherwise
+     */
+    static boolean isSecondaryLimited(GithubResponse r) {
+        int status = r.getStatus();
+        if (status != 403 && status != 429) return false;
+        if (isExhausted(r)) return false;
+        if (status == 429 || GithubHeaders.get(r, GithubHeaders.RETRY_AFTER) != null) return true;
+        if (!(r instanceof GithubBufferedResponse b)) return false;
+
+        String message = b.getText().toLowerCase(Locale.ROOT);
+        return message.contains("secondary rate limit") || message.contains("abuse detection");
+    }
+
+    @Override
+    public String toString() {
+        return resource + ": " + remaining + "/" + limit + " (reset " + reset + ")";
+    }
+}
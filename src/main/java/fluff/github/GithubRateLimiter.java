@@ -0,0 +1,271 @@
+package fluff.github;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fluff.http.path.URLPath;
+
+/**
+ * Schedules requests according to the GitHub rate limits.
+ * <p>
+ * The limiter tracks the budget reported by the {@code X-RateLimit-*} headers for every token and
+ * resource (core, search, graphql, ...). Requests are paced as a token bucket that spreads the
+ * remaining budget over the time left until the window resets, and callers are delayed instead of
+ * failing when the budget is exhausted or GitHub answers with a primary or secondary rate limit
+ * error ({@code 403}/{@code 429}).
+ */
+public class GithubRateLimiter {
+
+    /**
+     * The resource of regular REST API requests.
+     */
+    public static final String CORE = "core";
+
+    /**
+     * The resource of search API requests.
+     */
+    public static final String SEARCH = "search";
+
+    /**
+     * The resource of code search API requests.
+     */
+    public static final String CODE_SEARCH = "code_search";
+
+    /**
+     * The resource of GraphQL API requests.
+     */
+    public static final String GRAPHQL = "graphql";
+
+    static final long SECONDARY_LIMIT_DELAY = 60_000;
+
+    private static final String ANONYMOUS = "";
+
+    private final Map<String, Map<String, Bucket>> buckets = new ConcurrentHashMap<>();
+
+    private final int burst;
+    private final Duration maxWait;
+    private final int maxRetries;
+
+    /**
+     * Constructs a new GithubRateLimiter.
+     *
+     * @param burst the number of requests that may be sent back to back before pacing kicks in
+     * @param maxWait the longest a caller is delayed, after which the request is sent or returned as is
+     * @param maxRetries the maximum number of times a rate limited request is retried
+     */
+    public GithubRateLimiter(int burst, Duration maxWait, int maxRetries) {
+        if (burst <= 0) throw new IllegalArgumentException("burst must be positive");
+
+        this.burst = burst;
+        this.maxWait = maxWait;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Constructs a new GithubRateLimiter with a burst of 10 requests, waiting at most one hour
+     * and retrying rate limited requests up to 3 times.
+     */
+    public GithubRateLimiter() {
+        this(10, Duration.ofHours(1), 3);
+    }
+
+    /**
+     * Blocks the caller until a request for the specified token and resource may be sent.
+     *
+     * @param token the token used for the request (can be null)
+     * @param resource the rate limit resource of the request (can be null if it is not rate limited)
+     */
+    public void acquire(String token, String resource) {
+        if (resource == null) return;
+
+        sleep(bucket(token, resource).reserve(System.currentTimeMillis(), burst));
+    }
+
+    /**
+     * Updates the tracked budget from the rate limit headers of a response.
+     *
+     * @param token the token used for the request (can be null)
+     * @param resource the rate limit resource the request was sent for (can be null)
+     * @param r the response
+     */
+    public void update(String token, String resource, GithubResponse r) {
+        GithubRateLimit limit = GithubRateLimit.of(r, resource);
+        if (limit == null) return;
+
+        bucket(token, limit.getResource()).update(limit.getLimit(), limit.getRemaining(), limit.getReset().getEpochSecond());
+    }
+
+    /**
+     * Computes how long to wait before retrying a rate limited request. A secondary rate limit error
+     * without a {@code Retry-After} header is retried after one minute, doubled for each retry.
+     *
+     * @param r the response
+     * @param attempt the number of retries already made
+     * @return the delay in milliseconds, or -1 if the request should not be retried
+     */
+    public long retryDelay(GithubResponse r, int attempt) {
+        int status = r.getStatus();
+        if (status != 403 && status != 429) return -1;
+        if (attempt >= maxRetries) return -1;
+
+        long delay = -1;
+        String retryAfter = GithubHeaders.get(r, GithubHeaders.RETRY_AFTER);
+        String remaining = GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_REMAINING);
+        String reset = GithubHeaders.get(r, GithubHeaders.RATE_LIMIT_RESET);
+
+        try {
+            if (retryAfter != null) {
+                delay = Long.parseLong(retryAfter.trim()) * 1000;
+            } else if ("0".equals(remaining) && reset != null) {
+                delay = Math.max(0, Long.parseLong(reset.trim()) * 1000 - System.currentTimeMillis()) + 1000;
+            } else if (status == 429 || GithubRateLimit.isSecondaryLimited(r)) {
+                // secondary rate limits without Retry-After: GitHub asks to wait at least one minute
+                delay = SECONDARY_LIMIT_DELAY << attempt;
+            }
+        } catch (NumberFormatException e) {
+            delay = SECONDARY_LIMIT_DELAY << attempt;
+        }
+        return delay > maxWait.toMillis() ? -1 : delay;
+    }
+
+    /**
+     * Returns the current budget of a resource for the specified token.
+     *
+     * @param token the token (can be null)
+     * @param resource the rate limit resource
+     * @return the rate limit snapshot, or null if no response reported it yet
+     */
+    public GithubRateLimit getRateLimit(String token, String resource) {
+        Map<String, Bucket> map = buckets.get(token == null ? ANONYMOUS : token);
+        if (map == null) return null;
+
+        Bucket bucket = map.get(resource);
+        return bucket == null ? null : bucket.snapshot(resource);
+    }
+
+    /**
+     * Returns the current budget of every known resource for the specified token.
+     *
+     * @param token the token (can be null)
+     * @return the list of rate limit snapshots
+     */
+    public List<GithubRateLimit> getRateLimits(String token) {
+        List<GithubRateLimit> list = new ArrayList<>();
+        Map<String, Bucket> map = buckets.get(token == null ? ANONYMOUS : token);
+        if (map == null) return list;
+
+        for (Map.Entry<String, Bucket> e : map.entrySet()) {
+            GithubRateLimit limit = e.getValue().snapshot(e.getKey());
+            if (limit != null) list.add(limit);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of requests that may be sent back to back before pacing kicks in.
+     *
+     * @return the burst size
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the longest a caller is delayed.
+     *
+     * @return the maximum wait
+     */
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Returns the maximum number of times a rate limited request is retried.
+     *
+     * @return the maximum number of retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    private Bucket bucket(String token, String resource) {
+        return buckets.computeIfAbsent(token == null ? ANONYMOUS : token, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(resource, k -> new Bucket());
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) return;
+
+        try {
+            Thread.sleep(Math.min(millis, maxWait.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Determines the rate limit resource a request URL is accounted to.
+     *
+     * @param api the base URL of the API
+     * @param path the request URL
+     * @return the resource, or null if the URL is not subject to the API rate limits
+     */
+    static String resource(URLPath api, URLPath path) {
+        String base = api.toString();
+        String url = path.toString();
+        if (!url.startsWith(base)) return null;
+
+        String endpoint = url.substring(base.length());
+        if (endpoint.startsWith("search/code")) return CODE_SEARCH;
+        if (endpoint.startsWith("search/")) return SEARCH;
+        if (endpoint.startsWith("graphql")) return GRAPHQL;
+        return CORE;
+    }
+
+    private static final class Bucket {
+
+        private int limit = -1;
+        private int remaining = -1;
+        private long reset;
+
+        private double tokens;
+        private long lastRefill;
+
+        synchronized void update(int limit, int remaining, long reset) {
+            this.limit = limit;
+            this.remaining = remaining;
+            this.reset = reset;
+        }
+
+        synchronized long reserve(long now, int burst) {
+            if (remaining < 0) return 0;
+
+            long resetMillis = reset * 1000;
+            if (now >= resetMillis) {
+                remaining = limit;
+                tokens = burst;
+                lastRefill = now;
+                return 0;
+            }
+            if (remaining <= 0) return resetMillis - now + 1000;
+
+            double rate = (double) remaining / (resetMillis - now);
+            tokens = Math.min(burst, tokens + (now - lastRefill) * rate);
+            lastRefill = now;
+
+            remaining--;
+            tokens--;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate);
+        }
+
+        synchronized GithubRateLimit snapshot(String resource) {
+            if (limit < 0) return null;
+
+            return new GithubRateLimit(resource, limit, remaining, Instant.ofEpochSecond(reset));
+        }
+    }
+}
@@ -1,5 +1,21 @@
 package fluff.github;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
 import fluff.http.path.URLPath;
 import fluff.http.response.HTTPResponse;
 
@@ -8,19 +24,36 @@ import fluff.http.response.HTTPResponse;
  */
 public class GithubRawFile {
 	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int PARTIAL_CONTENT = 206;
+	private static final int RANGE_NOT_SATISFIABLE = 416;
+	
 	private final Github gh;
 	
 	private final URLPath downloadUrl;
+	private final String sha;
 	
 	/**
-     * Constructs a new GithubRawFile instance with the specified GitHub client and download URL.
+     * Constructs a new GithubRawFile instance with the specified GitHub client, download URL and git blob SHA.
      *
      * @param gh the GitHub client to use
      * @param downloadUrl the URL to download the raw file
+     * @param sha the git blob SHA of the file (can be null if unknown)
      */
-	public GithubRawFile(Github gh, URLPath downloadUrl) {
+	public GithubRawFile(Github gh, URLPath downloadUrl, String sha) {
 		this.gh = gh;
 		this.downloadUrl = downloadUrl;
+		this.sha = sha;
+	}
+	
+	/**
+     * Constructs a new GithubRawFile instance with the specified GitHub client and download URL.
+     *
+     * @param gh the GitHub client to use
+     * @param downloadUrl the URL to download the raw file
+     */
+	public GithubRawFile(Github gh, URLPath downloadUrl) {
+		this(gh, downloadUrl, null);
 	}
 	
     /**
@@ -37,11 +70,234 @@ public class GithubRawFile {
      * Sends an HTTP GET request to download the file.
      *
      * @return the HTTP response
+     * @throws UnsupportedOperationException if the client was constructed with a {@link GithubTransport} other
+     *         than a fluff {@link fluff.http.HTTP} client
+     * @deprecated the response is only available from clients sending their requests through a fluff HTTP
+     *             client, as all clients constructed without a {@link GithubTransport} do; use {@link #response()},
+     *             which works with every transport
      */
+    @Deprecated
     public HTTPResponse GET() {
+        GithubResponse r = response();
+        if (r instanceof GithubFluffTransport.Response f) return f.getResponse();
+        
+        Github.discard(r);
+        throw new UnsupportedOperationException("The client does not send its requests through a fluff HTTP client, use response() instead");
+    }
+    
+    /**
+     * Sends an HTTP GET request to download the file. The body of the response must be closed.
+     *
+     * @return the response
+     */
+    public GithubResponse response() {
         return gh.response(downloadUrl);
     }
+    
+    /**
+     * Reads the content of the file. When the git blob SHA of the file is known and the client has a
+     * {@link GithubBlobStore}, the store is consulted first and the downloaded content is added to it.
+     *
+     * @return the content of the file, or null if the file does not exist
+     */
+    public ByteBuffer content() {
+        GithubBlobStore store = gh.getBlobStore();
+        if (store != null && sha != null) {
+            ByteBuffer content = store.read(sha);
+            if (content != null) return content;
+        }
+        
+        GithubResponse r = response();
+        if (!r.isOK()) {
+            Github.discard(r);
+            return null;
+        }
+        
+        byte[] content;
+        try (InputStream in = r.getBody()) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        if (store != null && sha != null) store.write(sha, content);
+        return ByteBuffer.wrap(content);
+    }
 	
+    /**
+     * Streams the content of the file into a channel through a bounded buffer, without holding the
+     * whole file in memory.
+     *
+     * @param out the channel to write the content to
+     * @param progress receives the number of bytes transferred so far after each chunk (can be null)
+     * @return the number of bytes transferred, or -1 if the file does not exist
+     */
+    public long transferTo(WritableByteChannel out, LongConsumer progress) {
+        GithubResponse r = response();
+        if (!r.isOK()) {
+            Github.discard(r);
+            return -1;
+        }
+        
+        try (InputStream in = r.getBody();
+                ReadableByteChannel src = Channels.newChannel(in)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long total = 0;
+            while (src.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += out.write(buffer);
+                }
+                buffer.clear();
+                
+                if (progress != null) progress.accept(total);
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Streams the content of the file into a channel through a bounded buffer, without holding the
+     * whole file in memory.
+     *
+     * @param out the channel to write the content to
+     * @return the number of bytes transferred, or -1 if the file does not exist
+     */
+    public long transferTo(WritableByteChannel out) {
+        return transferTo(out, null);
+    }
+    
+    /**
+     * Downloads the file to the local disk, streaming it straight into the target's file channel.
+     * <p>
+     * The content is written to a {@code .part} file next to the target, which is moved into place once
+     * complete. If a previous download was interrupted, the partial file is resumed with an HTTP
+     * {@code Range} request, conditional on the {@code ETag} or {@code Last-Modified} date of the response
+     * that started it (kept in a {@code .validator} file), so a file that changed in between is downloaded
+     * again from the start. When the git blob SHA of the file is known, the blob store is consulted
+     * first, and the downloaded content is verified against the SHA and added to the store.
+     *
+     * @param target the file to download to
+     * @param progress receives the number of bytes written to the target so far after each chunk (can be null)
+     * @return the size of the downloaded file, or -1 if the file does not exist
+     */
+    public long downloadTo(Path target, LongConsumer progress) {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Path validator = target.resolveSibling(target.getFileName() + ".validator");
+        try {
+            GithubBlobStore store = gh.getBlobStore();
+            Path blob = store != null && sha != null ? store.file(sha) : null;
+            boolean cached = blob != null && copy(blob, part);
+            if (!cached && !download(part, validator, progress)) return -1;
+            
+            if (sha != null && !sha.equals(GithubBlobStore.sha(part))) {
+                Files.deleteIfExists(part);
+                Files.deleteIfExists(validator);
+                throw new IOException("Downloaded content of " + downloadUrl + " does not match its SHA " + sha);
+            }
+            if (!cached && store != null && sha != null) store.write(sha, part);
+            
+            long size = Files.size(part);
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(validator);
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Downloads the file to the local disk, streaming it straight into the target's file channel.
+     *
+     * @param target the file to download to
+     * @return the size of the downloaded file, or -1 if the file does not exist
+     * @see #downloadTo(Path, LongConsumer)
+     */
+    public long downloadTo(Path target) {
+        return downloadTo(target, null);
+    }
+    
+    private boolean copy(Path blob, Path part) throws IOException {
+        try {
+            Files.copy(blob, part, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Downloads the file into the partial file. A partial file is only resumed when the validator of the
+     * response that started it was saved, and it is sent as {@code If-Range} so GitHub sends the whole
+     * file again if it changed since.
+     */
+    private boolean download(Path part, Path validator, LongConsumer progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = channel.size();
+            String ifRange = offset > 0 && Files.exists(validator) ? Files.readString(validator) : null;
+            
+            GithubResponse r = null;
+            if (ifRange != null) {
+                r = gh.response(downloadUrl, Map.of(GithubHeaders.RANGE, "bytes=" + offset + "-", GithubHeaders.IF_RANGE, ifRange));
+                
+                int status = r.getStatus();
+                long[] range = GithubHeaders.contentRange(r);
+                if (status == RANGE_NOT_SATISFIABLE && range != null && range[2] == offset) {
+                    // the partial file already holds the whole file
+                    Github.discard(r);
+                    return true;
+                }
+                if (status == RANGE_NOT_SATISFIABLE || status == PARTIAL_CONTENT && (range == null || range[0] != offset)) {
+                    // the file shrank, or GitHub answered with another range than requested: start over
+                    Github.discard(r);
+                    r = null;
+                } else if (status != PARTIAL_CONTENT && !r.isOK()) {
+                    Github.discard(r);
+                    return false;
+                }
+            }
+            
+            if (r == null) r = response();
+            if (r.getStatus() != PARTIAL_CONTENT) {
+                if (!r.isOK()) {
+                    Github.discard(r);
+                    return false;
+                }
+                
+                channel.truncate(0);
+                offset = 0;
+                saveValidator(r, validator);
+            }
+            
+            try (InputStream in = r.getBody();
+                    ReadableByteChannel src = Channels.newChannel(in)) {
+                long position = offset;
+                long read;
+                while ((read = channel.transferFrom(src, position, BUFFER_SIZE)) > 0) {
+                    position += read;
+                    
+                    if (progress != null) progress.accept(position);
+                }
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Saves the validator a later download of the partial file can be resumed with: the {@code ETag} of the
+     * response if it is strong, or else its {@code Last-Modified} date. Without one, the partial file
+     * cannot be resumed.
+     */
+    private static void saveValidator(GithubResponse r, Path validator) throws IOException {
+        String etag = GithubHeaders.get(r, GithubHeaders.ETAG);
+        String value = etag != null && !etag.startsWith("W/") ? etag : GithubHeaders.get(r, GithubHeaders.LAST_MODIFIED);
+        
+        if (value == null) Files.deleteIfExists(validator);
+        else Files.writeString(validator, value);
+    }
+    
     /**
      * Returns the download URL of the file.
      *
@@ -50,4 +306,13 @@ public class GithubRawFile {
 	public URLPath getDownloadURL() {
 		return downloadUrl;
 	}
+	
+    /**
+     * Returns the git blob SHA of the file.
+     *
+     * @return the file SHA, or null if it is unknown
+     */
+	public String getSHA() {
+		return sha;
+	}
 }
@@ -0,0 +1,147 @@
+package fluff.github;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents a release of a GitHub repository and the assets attached to it.
+ */
+public class GithubRelease {
+
+    private final String userName;
+    private final String repoName;
+
+    private final long id;
+    private final String tagName;
+    private final String name;
+    private final boolean draft;
+    private final boolean prerelease;
+    private final Instant publishedAt;
+    private final List<GithubReleaseAsset> assets;
+
+    /**
+     * Constructs a GithubRelease instance from its fields.
+     *
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param id the release ID
+     * @param tagName the name of the tag the release points at
+     * @param name the title of the release (can be null)
+     * @param draft whether the release is an unpublished draft
+     * @param prerelease whether the release is marked as a prerelease
+     * @param publishedAt the time the release was published (can be null for drafts)
+     * @param assets the assets attached to the release
+     */
+    GithubRelease(String userName, String repoName, long id, String tagName, String name, boolean draft, boolean prerelease,
+            Instant publishedAt, List<GithubReleaseAsset> assets) {
+        this.userName = userName;
+        this.repoName = repoName;
+
+        this.id = id;
+        this.tagName = tagName;
+        this.name = name;
+        this.draft = draft;
+        this.prerelease = prerelease;
+        this.publishedAt = publishedAt;
+        this.assets = List.copyOf(assets);
+    }
+
+    /**
+     * Returns an asset of the release by its file name.
+     *
+     * @param name the file name of the asset
+     * @return the asset, or null if the release has no such asset
+     */
+    public GithubReleaseAsset asset(String name) {
+        for (GithubReleaseAsset asset : assets) {
+            if (asset.getName().equals(name)) return asset;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the user's name
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Returns the name of the repository.
+     *
+     * @return the repository's name
+     */
+    public String getRepoName() {
+        return repoName;
+    }
+
+    /**
+     * Returns the ID of the release.
+     *
+     * @return the release ID
+     */
+    public long getID() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the tag the release points at.
+     *
+     * @return the tag name
+     */
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * Returns the title of the release.
+     *
+     * @return the release title, or null if it has none
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks if the release is an unpublished draft.
+     *
+     * @return true if the release is a draft, false otherwise
+     */
+    public boolean isDraft() {
+        return draft;
+    }
+
+    /**
+     * Checks if the release is marked as a prerelease.
+     *
+     * @return true if the release is a prerelease, false otherwise
+     */
+    public boolean isPrerelease() {
+        return prerelease;
+    }
+
+    /**
+     * Returns the time the release was published.
+     *
+     * @return the publication time, or null if the release is a draft
+     */
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * Returns the assets attached to the release.
+     *
+     * @return an unmodifiable list of the assets
+     */
+    public List<GithubReleaseAsset> getAssets() {
+        return assets;
+    }
+
+    @Override
+    public String toString() {
+        return userName + "/" + repoName + "@" + tagName;
+    }
+}
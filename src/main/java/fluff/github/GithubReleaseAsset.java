@@ -0,0 +1,163 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Represents a file attached to a {@link GithubRelease}.
+ */
+public class GithubReleaseAsset {
+
+    /**
+     * The default number of ranges a large asset is downloaded in at the same time.
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * The smallest range an asset is split into, so small assets are downloaded with a single request.
+     */
+    public static final long MIN_RANGE_SIZE = 8L * 1024 * 1024;
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    private final Github gh;
+
+    private final String userName;
+    private final String repoName;
+
+    private final long id;
+    private final String name;
+    private final String contentType;
+    private final long size;
+    private final String downloadUrl;
+
+    /**
+     * Constructs a GithubReleaseAsset instance from its fields.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param id the asset ID
+     * @param name the file name of the asset
+     * @param contentType the media type of the asset
+     * @param size the size of the asset in bytes
+     * @param downloadUrl the browser download URL of the asset
+     */
+    GithubReleaseAsset(Github gh, String userName, String repoName, long id, String name, String contentType, long size, String downloadUrl) {
+        this.gh = gh;
+
+        this.userName = userName;
+        this.repoName = repoName;
+
+        this.id = id;
+        this.name = name;
+        this.contentType = contentType;
+        this.size = size;
+        this.downloadUrl = downloadUrl;
+    }
+
+    /**
+     * Downloads the asset to the local disk, in several HTTP {@code Range} requests sent at the same time.
+     * <p>
+     * The asset is split into up to {@code parallelism} ranges of at least {@value #MIN_RANGE_SIZE} bytes,
+     * and each range is written straight into its region of a {@code .part} file preallocated to the size
+     * of the asset. The progress of every range is recorded next to it, so an interrupted download resumes
+     * each range where it stopped. Once every range is complete and the file has the size of the asset,
+     * it is moved into place.
+     *
+     * @param target the file to download to
+     * @param parallelism the maximum number of ranges downloaded at the same time
+     * @param progress receives the number of bytes downloaded so far, from the download threads but never
+     *        concurrently (can be null)
+     * @return the size of the downloaded file, or -1 if the asset does not exist anymore
+     */
+    public long downloadTo(Path target, int parallelism, LongConsumer progress) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be positive");
+
+        int ranges = (int) Math.max(1, Math.min(parallelism, size / MIN_RANGE_SIZE));
+        GithubRangedDownload download = new GithubRangedDownload(gh,
+                gh.api.derive("repos/" + userName + "/" + repoName + "/releases/assets/" + id),
+                Map.of(GithubHeaders.ACCEPT, OCTET_STREAM), size);
+        try {
+            return download.downloadTo(target, ranges, progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Downloads the asset to the local disk with the default parallelism.
+     *
+     * @param target the file to download to
+     * @param progress receives the number of bytes downloaded so far (can be null)
+     * @return the size of the downloaded file, or -1 if the asset does not exist anymore
+     * @see #downloadTo(Path, int, LongConsumer)
+     */
+    public long downloadTo(Path target, LongConsumer progress) {
+        return downloadTo(target, DEFAULT_PARALLELISM, progress);
+    }
+
+    /**
+     * Downloads the asset to the local disk with the default parallelism.
+     *
+     * @param target the file to download to
+     * @return the size of the downloaded file, or -1 if the asset does not exist anymore
+     * @see #downloadTo(Path, int, LongConsumer)
+     */
+    public long downloadTo(Path target) {
+        return downloadTo(target, DEFAULT_PARALLELISM, null);
+    }
+
+    /**
+     * Returns the ID of the asset.
+     *
+     * @return the asset ID
+     */
+    public long getID() {
+        return id;
+    }
+
+    /**
+     * Returns the file name of the asset.
+     *
+     * @return the asset name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the media type of the asset.
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the size of the asset in bytes.
+     *
+     * @return the asset size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the URL downloading the asset from a browser.
+     *
+     * @return the browser download URL
+     */
+    public String getDownloadURL() {
+        return downloadUrl;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + size + " bytes)";
+    }
+}
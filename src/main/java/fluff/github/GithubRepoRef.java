@@ -0,0 +1,73 @@
+package fluff.github;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A reference to a GitHub repository by owner and name, used for batch lookups.
+ */
+public class GithubRepoRef {
+
+    private final String userName;
+    private final String repoName;
+
+    /**
+     * Constructs a new GithubRepoRef.
+     *
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     */
+    public GithubRepoRef(String userName, String repoName) {
+        this.userName = Objects.requireNonNull(userName);
+        this.repoName = Objects.requireNonNull(repoName);
+    }
+
+    /**
+     * Parses a reference from a full repository name.
+     *
+     * @param fullName the full name of the repository, in the {@code owner/name} form
+     * @return the repository reference
+     */
+    public static GithubRepoRef of(String fullName) {
+        int slash = fullName.indexOf('/');
+        if (slash <= 0 || slash == fullName.length() - 1) throw new IllegalArgumentException("Invalid repository name: " + fullName);
+
+        return new GithubRepoRef(fullName.substring(0, slash), fullName.substring(slash + 1));
+    }
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the user's name
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Returns the name of the repository.
+     *
+     * @return the repository's name
+     */
+    public String getRepoName() {
+        return repoName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof GithubRepoRef other)) return false;
+
+        return userName.equalsIgnoreCase(other.userName) && repoName.equalsIgnoreCase(other.repoName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userName.toLowerCase(Locale.ROOT), repoName.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return userName + "/" + repoName;
+    }
+}
@@ -1,8 +1,7 @@
 package fluff.github;
 
 import java.util.List;
-
-import fluff.json.JSONObject;
+import java.util.stream.Stream;
 
 /**
  * Represents a GitHub repository and provides methods to retrieve repository-related information.
@@ -22,23 +21,31 @@ public class GithubRepository {
     private final boolean archived;
     
     /**
-     * Constructs a GithubRepository instance from a JSONObject.
+     * Constructs a GithubRepository instance from its fields.
      *
      * @param gh the Github client instance
-     * @param json the JSON object containing repository information
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param id the repository ID
+     * @param fullName the full name of the repository
+     * @param description the description of the repository
+     * @param homepage the homepage URL of the repository
+     * @param defaultBranch the default branch of the repository
+     * @param archived whether the repository is archived
      */
-    GithubRepository(Github gh, JSONObject json) {
+    GithubRepository(Github gh, String userName, String repoName, long id, String fullName, String description,
+            String homepage, String defaultBranch, boolean archived) {
         this.gh = gh;
         
-        this.userName = json.getObject("owner").getString("login");
-        this.repoName = json.getString("name");
+        this.userName = userName;
+        this.repoName = repoName;
         
-        this.id = json.getLong("id");
-        this.fullName = json.getString("full_name");
-        this.description = json.getString("description");
-        this.homepage = json.getString("homepage");
-        this.defaultBranch = json.getString("default_branch");
-        this.archived = json.getBoolean("archived");
+        this.id = id;
+        this.fullName = fullName;
+        this.description = description;
+        this.homepage = homepage;
+        this.defaultBranch = defaultBranch;
+        this.archived = archived;
     }
     
     /**
@@ -60,6 +67,75 @@ public class GithubRepository {
         return gh.branches(userName, repoName);
     }
     
+    /**
+     * Lazily streams all branches of the repository, fetching one page at a time.
+     *
+     * @return a stream of the repository's branches
+     */
+    public Stream<GithubBranch> streamBranches() {
+        return gh.streamBranches(userName, repoName);
+    }
+    
+    /**
+     * Retrieves all releases of the repository, newest first.
+     *
+     * @return a list of GithubRelease objects representing the repository's releases
+     */
+    public List<GithubRelease> releases() {
+        return gh.releases(userName, repoName);
+    }
+    
+    /**
+     * Lazily streams all releases of the repository, newest first, fetching one page at a time.
+     *
+     * @return a stream of the repository's releases
+     */
+    public Stream<GithubRelease> streamReleases() {
+        return gh.streamReleases(userName, repoName);
+    }
+    
+    /**
+     * Retrieves the latest published release of the repository, ignoring drafts and prereleases.
+     *
+     * @return a GithubRelease object representing the release, or null if the repository has no published release
+     */
+    public GithubRelease latestRelease() {
+        return gh.latestRelease(userName, repoName);
+    }
+    
+    /**
+     * Retrieves the release of the repository pointing at a tag.
+     *
+     * @param tagName the name of the tag
+     * @return a GithubRelease object representing the release, or null if the tag has no release
+     */
+    public GithubRelease release(String tagName) {
+        return gh.release(userName, repoName, tagName);
+    }
+    
+    /**
+     * Retrieves the files changed between two commits of the repository.
+     *
+     * @param base the base commit SHA, branch or tag
+     * @param head the head commit SHA, branch or tag
+     * @return a list of GithubChange objects representing the changed files, or null if either commit does not exist
+     */
+    public List<GithubChange> changes(String base, String head) {
+        return gh.changes(userName, repoName, base, head);
+    }
+    
+    /**
+     * Lazily streams the files changed between two commits of the repository.
+     *
+     * @param base the base commit SHA, branch or tag
+     * @param head the head commit SHA, branch or tag
+     * @return a stream of GithubChange objects representing the changed files, empty if either commit does not exist
+     * @see Github#streamChanges(String, String, String, String)
+     */
+    public Stream<GithubChange> streamChanges(String base, String head) {
+        return gh.streamChanges(userName, repoName, base, head);
+    }
+    
     /**
      * Returns the name of the user.
      *
@@ -0,0 +1,43 @@
+package fluff.github;
+
+import java.io.InputStream;
+
+import fluff.http.head.HTTPHeader;
+
+/**
+ * A response received through a {@link GithubTransport}.
+ */
+public interface GithubResponse {
+
+    /**
+     * Returns the status code of the response.
+     *
+     * @return the status code
+     */
+    int getStatus();
+
+    /**
+     * Returns the value of a response header.
+     *
+     * @param header the header
+     * @return the header value, or null if the header is not present
+     */
+    String getHeader(HTTPHeader header);
+
+    /**
+     * Returns the body of the response, already decoded if the transport negotiated a content encoding.
+     * The body can only be read once and must be closed.
+     *
+     * @return the body stream
+     */
+    InputStream getBody();
+
+    /**
+     * Checks if the response has the status {@code 200 OK}.
+     *
+     * @return true if the status is 200, false otherwise
+     */
+    default boolean isOK() {
+        return getStatus() == 200;
+    }
+}
@@ -0,0 +1,109 @@
+package fluff.github;
+
+/**
+ * A cache of parsed GitHub API responses, keyed by request URL and by the type the body was read as,
+ * since the same URL can be read into different objects.
+ * <p>
+ * Entries keep the {@code ETag} and {@code Last-Modified} validators of the response they were
+ * created from, so the client can revalidate them with a conditional request and reuse the
+ * cached body when GitHub answers with {@code 304 Not Modified}.
+ */
+public interface GithubResponseCache {
+
+    /**
+     * Computes the key of the entry holding the body of a URL read as a type.
+     *
+     * @param url the request URL
+     * @param type the type the body is read as
+     * @return the cache key
+     */
+    static String key(String url, Class<?> type) {
+        return type.getName() + " " + url;
+    }
+
+    /**
+     * Retrieves the cached entry for a key.
+     *
+     * @param key the cache key, as computed by {@link #key(String, Class)}
+     * @return the cached entry, or null if there is none
+     */
+    Entry get(String key);
+
+    /**
+     * Stores an entry for a key, replacing any previous entry.
+     *
+     * @param key the cache key
+     * @param entry the entry to store
+     */
+    void put(String key, Entry entry);
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param key the cache key
+     */
+    void invalidate(String key);
+
+    /**
+     * Removes all entries.
+     */
+    void clear();
+
+    /**
+     * Called when GitHub confirmed that a cached entry is still up to date, and it is about to be served.
+     *
+     * @param key the cache key
+     * @param entry the revalidated entry
+     */
+    default void revalidated(String key, Entry entry) {}
+
+    /**
+     * A cached response body together with its validators.
+     */
+    final class Entry {
+
+        private final String etag;
+        private final String lastModified;
+        private final Object body;
+
+        /**
+         * Constructs a new cache entry.
+         *
+         * @param etag the ETag of the response (can be null)
+         * @param lastModified the Last-Modified date of the response (can be null)
+         * @param body the parsed response body
+         */
+        public Entry(String etag, String lastModified, Object body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        /**
+         * Returns the ETag of the cached response.
+         *
+         * @return the ETag, or null if the response had none
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * Returns the Last-Modified date of the cached response.
+         *
+         * @return the Last-Modified date, or null if the response had none
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the parsed body of the cached response.
+         *
+         * @return the parsed body, an instance of the type in the key of the entry
+         */
+        public Object getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package fluff.github;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Retries failed idempotent requests and optionally hedges slow raw content requests.
+ * <p>
+ * GET requests that fail with an exception or a transient server error ({@code 500}, {@code 502},
+ * {@code 503}, {@code 504}) are sent again after an exponential backoff with full jitter, or after the
+ * {@code Retry-After} delay when GitHub sends one. Rate limit errors are left to the
+ * {@link GithubRateLimiter} when one is set.
+ * <p>
+ * With hedging enabled, a request for raw content that did not complete within the 95th percentile of
+ * recent raw content latencies is sent a second time, and whichever response arrives first is used.
+ * API requests are never hedged, since every copy would be charged against the rate limit.
+ */
+public class GithubRetryPolicy {
+
+    /**
+     * The delay before hedging until enough latencies were recorded to estimate the 95th percentile.
+     */
+    public static final Duration INITIAL_HEDGE_DELAY = Duration.ofMillis(100);
+
+    private static final int HEDGE_MIN_SAMPLES = 20;
+    private static final double HEDGE_QUANTILE = 0.95;
+
+    private static final ExecutorService HEDGE = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("github-hedge-", 0).factory());
+
+    private final int maxRetries;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final boolean hedging;
+
+    private final GithubHistogram latencies = new GithubHistogram();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+
+    /**
+     * Constructs a new GithubRetryPolicy.
+     *
+     * @param maxRetries the maximum number of times a request is sent again
+     * @param baseDelay the backoff before the first retry, doubled for each following retry
+     * @param maxDelay the longest backoff; a {@code Retry-After} longer than this is not waited for
+     * @param hedging true to hedge slow raw content requests, false otherwise
+     */
+    public GithubRetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay, boolean hedging) {
+        if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
+
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay.toMillis();
+        this.maxDelay = maxDelay.toMillis();
+        this.hedging = hedging;
+    }
+
+    /**
+     * Constructs a new GithubRetryPolicy retrying up to 3 times with a backoff from 250 milliseconds
+     * up to 30 seconds, without hedging.
+     */
+    public GithubRetryPolicy() {
+        this(3, Duration.ofMillis(250), Duration.ofSeconds(30), false);
+    }
+
+    /**
+     * Computes how long to wait before sending a request again.
+     *
+     * @param r the response, or null if the request failed with an exception
+     * @param attempt the number of the attempt that just completed, starting at 0
+     * @return the delay in milliseconds, or -1 if the request should not be sent again
+     */
+    long retryDelay(GithubResponse r, int attempt) {
+        if (attempt >= maxRetries) return -1;
+
+        long delay = -1;
+        if (r != null) {
+            int status = r.getStatus();
+            String retryAfter = GithubHeaders.get(r, GithubHeaders.RETRY_AFTER);
+            if (retryAfter != null && (status == 429 || status == 503 || status == 403)) {
+                try {
+                    delay = Long.parseLong(retryAfter.trim()) * 1000;
+                } catch (NumberFormatException e) {}
+            } else if (!isTransient(status)) {
+                return -1;
+            }
+        }
+
+        if (delay < 0) {
+            long cap = Math.min(maxDelay, baseDelay << Math.min(attempt, 30));
+            delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        }
+        if (delay > maxDelay) return -1;
+
+        retries.increment();
+        return delay;
+    }
+
+    /**
+     * Sends a request, sending it a second time if it does not complete within the hedge delay, and
+     * returns the first response that arrives. The other response is discarded.
+     *
+     * @param send sends the request
+     * @return the first response
+     */
+    GithubResponse hedge(Supplier<GithubResponse> send) {
+        long start = System.nanoTime();
+        CompletableFuture<GithubResponse> primary = CompletableFuture.supplyAsync(send, HEDGE);
+        try {
+            GithubResponse r = primary.get(hedgeDelay(), TimeUnit.NANOSECONDS);
+            latencies.record(System.nanoTime() - start);
+            return r;
+        } catch (TimeoutException e) {
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(Github::discard);
+            throw new CompletionException(e);
+        }
+
+        hedges.increment();
+        CompletableFuture<GithubResponse> backup = CompletableFuture.supplyAsync(send, HEDGE);
+
+        CompletableFuture<GithubResponse> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<GithubResponse, Throwable> complete = (r, t) -> {
+            if (t == null) {
+                if (!first.complete(r)) Github.discard(r);
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(t);
+            }
+        };
+        primary.whenComplete(complete);
+        backup.whenComplete(complete);
+
+        try {
+            GithubResponse r = first.join();
+            latencies.record(System.nanoTime() - start);
+            return r;
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Checks if hedging is enabled.
+     *
+     * @return true if slow raw content requests are hedged, false otherwise
+     */
+    public boolean isHedging() {
+        return hedging;
+    }
+
+    /**
+     * Returns the maximum number of times a request is sent again.
+     *
+     * @return the maximum number of retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns the number of retries scheduled so far.
+     *
+     * @return the number of retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of requests that were hedged so far.
+     *
+     * @return the number of hedged requests
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the current delay after which a raw content request is hedged.
+     *
+     * @return the hedge delay
+     */
+    public Duration getHedgeDelay() {
+        return Duration.ofNanos(hedgeDelay());
+    }
+
+    private long hedgeDelay() {
+        if (latencies.getCount() < HEDGE_MIN_SAMPLES) return INITIAL_HEDGE_DELAY.toNanos();
+
+        return latencies.getValueAt(HEDGE_QUANTILE);
+    }
+
+    private static boolean isTransient(int status) {
+        return status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    private static RuntimeException unwrap(Throwable t) {
+        return t instanceof RuntimeException e ? e : new CompletionException(t);
+    }
+}
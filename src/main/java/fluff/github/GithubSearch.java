@@ -0,0 +1,287 @@
+package fluff.github;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import fluff.http.path.URLPath;
+
+/**
+ * A lazy iterator over the results of a GitHub search.
+ * <p>
+ * GitHub returns at most {@value #MAX_RESULTS} results per query. When a query matches more, it is split
+ * into partitions on a qualifier the query does not already use (the creation date of repositories, the
+ * size of files) until every partition fits under the cap, and the partitions are walked one after the
+ * other. Results are therefore ordered within a partition only. A partition is split when the first page
+ * of its results reports more than the cap, and that page is dropped.
+ * <p>
+ * Search has its own, much smaller rate limit bucket. When a response reports the bucket as exhausted,
+ * the next request waits until the bucket resets instead of failing. Secondary rate limits are waited out
+ * for their {@code Retry-After}, or one minute doubled for each retry, like {@link GithubRateLimiter} does.
+ *
+ * @param <T> the type of the results
+ */
+public class GithubSearch<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * The maximum number of results GitHub returns for a single query.
+     */
+    public static final int MAX_RESULTS = 1000;
+
+    private static final int MAX_RATE_LIMITED = 3;
+    private static final int FORBIDDEN = 403;
+
+    /**
+     * A qualifier search results can be partitioned on.
+     */
+    enum Partitioning {
+
+        /**
+         * Partitions repositories by creation date, in days since the epoch.
+         */
+        CREATED("created", LocalDate.of(2007, 10, 1).toEpochDay()) {
+            @Override
+            long max() {
+                return LocalDate.now(ZoneOffset.UTC).toEpochDay();
+            }
+
+            @Override
+            String qualifier(long from, long to) {
+                return "created:" + LocalDate.ofEpochDay(from) + ".." + LocalDate.ofEpochDay(to);
+            }
+        },
+
+        /**
+         * Partitions code by file size in bytes, up to the largest file GitHub indexes.
+         */
+        SIZE("size", 0) {
+            @Override
+            long max() {
+                return 384 * 1024;
+            }
+
+            @Override
+            String qualifier(long from, long to) {
+                return "size:" + from + ".." + to;
+            }
+        };
+
+        private final String name;
+        private final long min;
+
+        Partitioning(String name, long min) {
+            this.name = name;
+            this.min = min;
+        }
+
+        abstract long max();
+
+        abstract String qualifier(long from, long to);
+
+        boolean isUsedBy(String query) {
+            return query.toLowerCase(Locale.ROOT).contains(name + ":");
+        }
+    }
+
+    private final Github gh;
+    private final String endpoint;
+    private final String query;
+    private final Partitioning partitioning;
+    private final GithubBinder<T> binder;
+    private final Deque<long[]> partitions = new ArrayDeque<>();
+
+    private URLPath next;
+    private List<T> items;
+    private int index;
+    private long totalCount = -1;
+    private long resumeAt;
+    private boolean closed;
+
+    /**
+     * Constructs a new GithubSearch.
+     *
+     * @param gh the Github client instance
+     * @param endpoint the search endpoint relative to the API base, like {@code search/repositories}
+     * @param query the search query
+     * @param partitioning the qualifier to partition large result sets on, or null to stop at the cap
+     * @param binder the binder of the results
+     */
+    GithubSearch(Github gh, String endpoint, String query, Partitioning partitioning, GithubBinder<T> binder) {
+        this.gh = gh;
+        this.endpoint = endpoint;
+        this.query = query;
+        this.partitioning = partitioning == null || partitioning.isUsedBy(query) ? null : partitioning;
+        this.binder = binder;
+
+        partitions.push(this.partitioning == null ? new long[0] : new long[] { this.partitioning.min, this.partitioning.max() });
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!closed && (items == null || index >= items.size())) {
+            if (next != null) {
+                load(fetch(next));
+                continue;
+            }
+            if (partitions.isEmpty()) return false;
+
+            long[] partition = partitions.pop();
+            Page<T> page = fetch(url(partition));
+            if (totalCount < 0) totalCount = page.totalCount;
+
+            if (page.totalCount > MAX_RESULTS && partition.length == 2 && partition[0] < partition[1]) {
+                long mid = partition[0] + (partition[1] - partition[0]) / 2;
+                partitions.push(new long[] { mid + 1, partition[1] });
+                partitions.push(new long[] { partition[0], mid });
+                continue;
+            }
+            load(page);
+        }
+        return !closed;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        return items.get(index++);
+    }
+
+    /**
+     * Returns a sequential stream over the remaining results. Closing the stream closes this iterator.
+     *
+     * @return the stream of results
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Returns the number of results GitHub reported for the whole query, which may exceed what a
+     * single query can return.
+     *
+     * @return the total number of results, or -1 if no page was fetched yet
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Stops the iteration.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        items = null;
+        next = null;
+        partitions.clear();
+    }
+
+    private void load(Page<T> page) {
+        items = page.items;
+        index = 0;
+        next = page.next;
+    }
+
+    private URLPath url(long[] partition) {
+        String q = partition.length == 2 ? query + " " + partitioning.qualifier(partition[0], partition[1]) : query;
+        return gh.api.derive(endpoint + "?q=" + URLEncoder.encode(q, StandardCharsets.UTF_8) + "&per_page=" + GithubPages.PER_PAGE);
+    }
+
+    private Page<T> fetch(URLPath path) {
+        for (int attempt = 0;; attempt++) {
+            long wait = resumeAt - System.currentTimeMillis();
+            if (wait > 0) sleep(wait);
+
+            GithubResponse r = gh.response(path);
+            GithubRateLimit limit = GithubRateLimit.of(r, null);
+            if (limit != null && limit.getRemaining() == 0) resumeAt = limit.getReset().toEpochMilli() + 1000;
+
+            if (r.isOK()) return read(r);
+
+            // the message of a 403 tells a secondary rate limit apart from a denied request
+            if (r.getStatus() == FORBIDDEN) r = GithubBufferedResponse.of(r);
+            else Github.discard(r);
+
+            long delay = retryDelay(r, attempt);
+            if (delay < 0) throw new IllegalStateException("Failed to search GitHub: " + r.getStatus());
+            resumeAt = Math.max(resumeAt, System.currentTimeMillis() + delay);
+        }
+    }
+
+    private static long retryDelay(GithubResponse r, int attempt) {
+        if (attempt >= MAX_RATE_LIMITED) return -1;
+        if (GithubRateLimit.isExhausted(r)) return 0;
+        if (!GithubRateLimit.isSecondaryLimited(r)) return -1;
+
+        String retryAfter = GithubHeaders.get(r, GithubHeaders.RETRY_AFTER);
+        try {
+            if (retryAfter != null) return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            // fall back to the delay GitHub asks for without Retry-After
+        }
+        return GithubRateLimiter.SECONDARY_LIMIT_DELAY << attempt;
+    }
+
+    private Page<T> read(GithubResponse r) {
+        long total = 0;
+        List<T> list = new ArrayList<>();
+        try (GithubJsonReader reader = new GithubJsonReader(r.getBody())) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "total_count" -> total = reader.nextLong();
+                    case "items" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            list.add(binder.bind(reader));
+                        }
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Page<>(list, total, GithubPage.next(GithubHeaders.get(r, GithubHeaders.LINK)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the search rate limit", e);
+        }
+    }
+
+    private static final class Page<T> {
+
+        private final List<T> items;
+        private final long totalCount;
+        private final URLPath next;
+
+        Page(List<T> items, long totalCount, URLPath next) {
+            this.items = items;
+            this.totalCount = totalCount;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package fluff.github;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A credential of a {@link GithubTokenPool}, together with its usage and remaining budget.
+ */
+public class GithubToken {
+
+    private final String value;
+    private final String authorization;
+    private final LongAdder used = new LongAdder();
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new GithubToken with the specified personal or installation access token.
+     *
+     * @param value the token
+     */
+    GithubToken(String value) {
+        this.value = value;
+        this.authorization = authorization(value);
+    }
+
+    /**
+     * Builds the {@code Authorization} header value for a token, computed once per token rather than per request.
+     *
+     * @param token the token
+     * @return the header value
+     */
+    static String authorization(String token) {
+        return "Bearer " + token;
+    }
+
+    /**
+     * Returns the number of requests left for a resource, assuming a full budget if it is unknown
+     * or its window has already reset.
+     *
+     * @param resource the rate limit resource
+     * @param now the current time in milliseconds
+     * @return the remaining requests
+     */
+    int remaining(String resource, long now) {
+        Budget budget = budgets.get(resource);
+        if (budget == null || now >= budget.reset * 1000) return Integer.MAX_VALUE;
+
+        return budget.remaining.get();
+    }
+
+    /**
+     * Returns the time at which the budget of a resource resets.
+     *
+     * @param resource the rate limit resource
+     * @return the reset time in epoch seconds, or 0 if it is unknown
+     */
+    long reset(String resource) {
+        Budget budget = budgets.get(resource);
+        return budget == null ? 0 : budget.reset;
+    }
+
+    /**
+     * Records a request sent with this token.
+     *
+     * @param resource the rate limit resource of the request (can be null)
+     */
+    void reserve(String resource) {
+        used.increment();
+        if (resource == null) return;
+
+        Budget budget = budgets.get(resource);
+        if (budget != null) budget.remaining.decrementAndGet();
+    }
+
+    /**
+     * Updates the budget of this token from the rate limit headers of a response.
+     *
+     * @param resource the rate limit resource the request was sent for (can be null)
+     * @param r the response
+     */
+    void update(String resource, GithubResponse r) {
+        GithubRateLimit limit = GithubRateLimit.of(r, resource);
+        if (limit == null) return;
+
+        Budget budget = budgets.computeIfAbsent(limit.getResource(), k -> new Budget());
+        budget.limit = limit.getLimit();
+        budget.reset = limit.getReset().getEpochSecond();
+        budget.remaining.set(limit.getRemaining());
+    }
+
+    /**
+     * Returns the token value.
+     *
+     * @return the token
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the {@code Authorization} header value sending this token.
+     *
+     * @return the header value
+     */
+    String getAuthorization() {
+        return authorization;
+    }
+
+    /**
+     * Returns the number of requests sent with this token.
+     *
+     * @return the number of requests
+     */
+    public long getUsed() {
+        return used.sum();
+    }
+
+    /**
+     * Returns the last known budget of a resource for this token.
+     *
+     * @param resource the rate limit resource
+     * @return the rate limit snapshot, or null if no response reported it yet
+     */
+    public GithubRateLimit getRateLimit(String resource) {
+        Budget budget = budgets.get(resource);
+        if (budget == null) return null;
+
+        return new GithubRateLimit(resource, budget.limit, budget.remaining.get(), Instant.ofEpochSecond(budget.reset));
+    }
+
+    @Override
+    public String toString() {
+        int visible = Math.min(4, value.length());
+        return "GithubToken[..." + value.substring(value.length() - visible) + ", used=" + getUsed() + "]";
+    }
+
+    private static final class Budget {
+
+        private final AtomicInteger remaining = new AtomicInteger();
+        private volatile int limit;
+        private volatile long reset;
+    }
+}
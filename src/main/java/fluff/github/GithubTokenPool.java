@@ -0,0 +1,118 @@
+package fluff.github;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of GitHub credentials that a {@link Github} client rotates between.
+ * <p>
+ * Every request is sent with the token that has the most budget left for the request's rate limit
+ * resource. Exhausted tokens are skipped until their window resets, so the aggregate throughput
+ * grows with the number of tokens. Selection is lock-free: budgets are kept in atomic counters
+ * per token and updated from the rate limit headers of every response.
+ */
+public class GithubTokenPool {
+
+    private final GithubToken[] tokens;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Constructs a new GithubTokenPool with the specified personal or installation access tokens.
+     *
+     * @param tokens the tokens
+     */
+    public GithubTokenPool(Collection<String> tokens) {
+        if (tokens.isEmpty()) throw new IllegalArgumentException("The token pool must not be empty");
+
+        this.tokens = new GithubToken[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            this.tokens[i++] = new GithubToken(token);
+        }
+    }
+
+    /**
+     * Constructs a new GithubTokenPool with the specified personal or installation access tokens.
+     *
+     * @param tokens the tokens
+     */
+    public GithubTokenPool(String... tokens) {
+        this(List.of(tokens));
+    }
+
+    /**
+     * Picks the token to send a request with.
+     * <p>
+     * Tokens are scanned starting at a rotating offset, so tokens with equal budgets share the load.
+     * If every token is exhausted, the one whose window resets first is returned.
+     *
+     * @param resource the rate limit resource of the request (can be null if it is not rate limited)
+     * @return the token
+     */
+    public GithubToken acquire(String resource) {
+        int start = Math.floorMod(next.getAndIncrement(), tokens.length);
+        if (resource == null) {
+            GithubToken token = tokens[start];
+            token.reserve(null);
+            return token;
+        }
+
+        long now = System.currentTimeMillis();
+        GithubToken best = null;
+        int bestRemaining = 0;
+        GithubToken earliest = null;
+
+        for (int i = 0; i < tokens.length; i++) {
+            GithubToken token = tokens[(start + i) % tokens.length];
+            int remaining = token.remaining(resource, now);
+            if (remaining > bestRemaining) {
+                best = token;
+                bestRemaining = remaining;
+            }
+            if (earliest == null || token.reset(resource) < earliest.reset(resource)) {
+                earliest = token;
+            }
+        }
+
+        GithubToken token = best != null ? best : earliest;
+        token.reserve(resource);
+        return token;
+    }
+
+    /**
+     * Checks if any token still has budget for a resource.
+     *
+     * @param resource the rate limit resource
+     * @return true if at least one token is not exhausted, false otherwise
+     */
+    public boolean hasBudget(String resource) {
+        long now = System.currentTimeMillis();
+        for (GithubToken token : tokens) {
+            if (token.remaining(resource, now) > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the tokens of the pool, with their usage and last known budgets.
+     *
+     * @return an unmodifiable list of the tokens
+     */
+    public List<GithubToken> getTokens() {
+        List<GithubToken> list = new ArrayList<>(tokens.length);
+        Collections.addAll(list, tokens);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the number of tokens in the pool.
+     *
+     * @return the number of tokens
+     */
+    public int size() {
+        return tokens.length;
+    }
+}
@@ -0,0 +1,29 @@
+package fluff.github;
+
+import java.util.Map;
+
+import fluff.http.head.HTTPHeader;
+import fluff.http.path.URLPath;
+
+/**
+ * Sends the HTTP requests of a {@link Github} client.
+ * <p>
+ * Implementations must be safe to call from many threads at once. Failures to reach the server are
+ * reported as unchecked exceptions, while any response received, whatever its status, is returned.
+ *
+ * @see GithubHttpClientTransport
+ */
+@FunctionalInterface
+public interface GithubTransport {
+
+    /**
+     * Sends a request, as a GET request if it has no body and as a POST request otherwise.
+     *
+     * @param url the URL of the request
+     * @param headers the request headers
+     * @param authorization the value of the {@code Authorization} header, or null to send the request anonymously
+     * @param body the JSON request body, or null for a GET request
+     * @return the response
+     */
+    GithubResponse send(URLPath url, Map<HTTPHeader, String> headers, String authorization, String body);
+}
@@ -0,0 +1,157 @@
+package fluff.github;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy iterator over the files changed between the trees of two commits, for comparisons too large for
+ * the compare API.
+ * <p>
+ * Both trees are walked one level at a time, and subtrees with the same SHA on both sides are skipped
+ * without being listed, so the number of requests follows the size of the diff rather than the size of
+ * the repository. Subtrees only present on one side are listed recursively, as all their files changed.
+ * Renames and copies cannot be told apart from a removed and an added file.
+ */
+final class GithubTreeDiff implements Iterator<GithubChange> {
+
+    private final Github gh;
+    private final String userName;
+    private final String repoName;
+    private final String base;
+    private final String head;
+
+    // base tree, head tree and path of the levels left to compare
+    private final Deque<String[]> levels = new ArrayDeque<>();
+    private final Deque<GithubChange> changes = new ArrayDeque<>();
+    private boolean failed;
+
+    /**
+     * Constructs a new GithubTreeDiff.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name of the repository owner
+     * @param repoName the name of the repository
+     * @param base the base commit SHA, branch or tag
+     * @param head the head commit SHA, branch or tag
+     */
+    GithubTreeDiff(Github gh, String userName, String repoName, String base, String head) {
+        this.gh = gh;
+        this.userName = userName;
+        this.repoName = repoName;
+        this.base = base;
+        this.head = head;
+
+        levels.push(new String[] { base, head, "" });
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (changes.isEmpty() && !levels.isEmpty()) {
+            if (!compare(levels.pop())) {
+                failed = true;
+                levels.clear();
+                throw new IllegalStateException("Failed to list the trees of " + userName + "/" + repoName + " " + base + "..." + head);
+            }
+        }
+        return !changes.isEmpty();
+    }
+
+    @Override
+    public GithubChange next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        return changes.poll();
+    }
+
+    /**
+     * Collects all remaining changes into a list.
+     *
+     * @return the unmodifiable list of changes, or null if a tree could not be listed
+     */
+    List<GithubChange> toList() {
+        List<GithubChange> list = new ArrayList<>();
+        try {
+            forEachRemaining(list::add);
+        } catch (IllegalStateException e) {
+            if (failed) return null;
+            throw e;
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private boolean compare(String[] level) {
+        List<GithubTreeEntry> baseLevel = gh.treeLevel(userName, repoName, base, level[0], level[2]);
+        List<GithubTreeEntry> headLevel = baseLevel == null ? null : gh.treeLevel(userName, repoName, head, level[1], level[2]);
+        if (headLevel == null) return false;
+
+        Map<String, GithubTreeEntry> removed = new LinkedHashMap<>();
+        for (GithubTreeEntry entry : baseLevel) {
+            removed.put(entry.getPath(), entry);
+        }
+
+        for (GithubTreeEntry entry : headLevel) {
+            GithubTreeEntry previous = removed.remove(entry.getPath());
+            if (previous != null && previous.isTree() && entry.isTree()) {
+                if (!previous.getSHA().equals(entry.getSHA())) {
+                    levels.push(new String[] { previous.getSHA(), entry.getSHA(), entry.getPath() + "/" });
+                }
+                continue;
+            }
+            if (previous != null && previous.isTree() != entry.isTree()) {
+                if (!removed(previous)) return false;
+                previous = null;
+            }
+
+            if (entry.isTree()) {
+                if (!added(entry)) return false;
+            } else if (previous == null) {
+                change(entry, GithubChange.Status.ADDED);
+            } else if (!previous.getSHA().equals(entry.getSHA())) {
+                change(entry, GithubChange.Status.MODIFIED);
+            } else if (!previous.getMode().equals(entry.getMode())) {
+                change(entry, GithubChange.Status.CHANGED);
+            }
+        }
+
+        for (GithubTreeEntry entry : removed.values()) {
+            if (!removed(entry)) return false;
+        }
+        return true;
+    }
+
+    private boolean added(GithubTreeEntry tree) {
+        List<GithubTreeEntry> entries = gh.subtree(userName, repoName, head, tree.getSHA(), tree.getPath() + "/");
+        if (entries == null) return false;
+
+        for (GithubTreeEntry entry : entries) {
+            if (!entry.isTree()) change(entry, GithubChange.Status.ADDED);
+        }
+        return true;
+    }
+
+    private boolean removed(GithubTreeEntry entry) {
+        if (!entry.isTree()) {
+            change(entry, GithubChange.Status.REMOVED);
+            return true;
+        }
+
+        List<GithubTreeEntry> entries = gh.subtree(userName, repoName, base, entry.getSHA(), entry.getPath() + "/");
+        if (entries == null) return false;
+
+        for (GithubTreeEntry removed : entries) {
+            if (!removed.isTree()) change(removed, GithubChange.Status.REMOVED);
+        }
+        return true;
+    }
+
+    private void change(GithubTreeEntry entry, GithubChange.Status status) {
+        changes.add(new GithubChange(gh, userName, repoName, head, entry.getPath(), null, status, entry.getSHA()));
+    }
+}
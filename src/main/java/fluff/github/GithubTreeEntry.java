@@ -0,0 +1,159 @@
+package fluff.github;
+
+import fluff.json.JSONObject;
+
+/**
+ * Represents an entry of a git tree in a GitHub repository, as returned by the git trees API.
+ */
+public class GithubTreeEntry {
+
+    /**
+     * The type of entries that are files.
+     */
+    public static final String BLOB = "blob";
+
+    /**
+     * The type of entries that are directories.
+     */
+    public static final String TREE = "tree";
+
+    /**
+     * The type of entries that are submodules.
+     */
+    public static final String COMMIT = "commit";
+
+    private final Github gh;
+
+    private final String userName;
+    private final String repoName;
+    private final String branchName;
+
+    private final String path;
+    private final String mode;
+    private final String type;
+    private final String sha;
+    private final long size;
+
+    /**
+     * Constructs a GithubTreeEntry instance from a JSONObject.
+     *
+     * @param gh the Github client instance
+     * @param userName the user name that owns the repository
+     * @param repoName the repository name
+     * @param branchName the branch name
+     * @param basePath the path of the listed tree, prepended to the entry's path
+     * @param json the JSON object containing tree entry information
+     */
+    GithubTreeEntry(Github gh, String userName, String repoName, String branchName, String basePath, JSONObject json) {
+        this.gh = gh;
+
+        this.userName = userName;
+        this.repoName = repoName;
+        this.branchName = branchName;
+
+        this.path = basePath + json.getString("path");
+        this.mode = json.getString("mode");
+        this.type = json.getString("type");
+        this.sha = json.getString("sha");
+        this.size = BLOB.equals(type) ? json.getLong("size") : 0;
+    }
+
+    /**
+     * Retrieves the raw content of this entry.
+     *
+     * @return a GithubRawFile object representing the raw content of the entry
+     */
+    public GithubRawFile rawFile() {
+        return gh.rawFile(userName, repoName, branchName, path, isBlob() ? sha : null);
+    }
+
+    /**
+     * Checks if this entry is a file.
+     *
+     * @return true if the entry is a blob, false otherwise
+     */
+    public boolean isBlob() {
+        return BLOB.equals(type);
+    }
+
+    /**
+     * Checks if this entry is a directory.
+     *
+     * @return true if the entry is a tree, false otherwise
+     */
+    public boolean isTree() {
+        return TREE.equals(type);
+    }
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the user's name
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Returns the name of the repository.
+     *
+     * @return the repository's name
+     */
+    public String getRepoName() {
+        return repoName;
+    }
+
+    /**
+     * Returns the name of the repository branch.
+     *
+     * @return the repository's branch name
+     */
+    public String getBranchName() {
+        return branchName;
+    }
+
+    /**
+     * Returns the path of the entry relative to the repository root.
+     *
+     * @return the entry's path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the git file mode of the entry (e.g., 100644, 040000).
+     *
+     * @return the entry's mode
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the type of the entry (blob, tree or commit).
+     *
+     * @return the entry's type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the SHA of the entry's git object.
+     *
+     * @return the entry's SHA
+     */
+    public String getSHA() {
+        return sha;
+    }
+
+    /**
+     * Returns the size of the entry in bytes, or 0 if the entry is not a blob.
+     *
+     * @return the entry's size
+     */
+    public long getSize() {
+        return size;
+    }
+}
@@ -1,8 +1,7 @@
 package fluff.github;
 
 import java.util.List;
-
-import fluff.json.JSONObject;
+import java.util.stream.Stream;
 
 /**
  * Represents a GitHub user and provides methods to retrieve user-related information.
@@ -22,23 +21,31 @@ public class GithubUser {
     private final int gistsSize;
     
     /**
-     * Constructs a GithubUser instance from a JSONObject.
+     * Constructs a GithubUser instance from its fields.
      *
      * @param gh the Github client instance
-     * @param json the JSON object containing user information
+     * @param userName the login of the user
+     * @param id the user ID
+     * @param displayName the display name of the user
+     * @param location the location of the user
+     * @param avatarUrl the avatar URL of the user
+     * @param bio the bio of the user
+     * @param reposSize the number of public repositories of the user
+     * @param gistsSize the number of public gists of the user
      */
-    GithubUser(Github gh, JSONObject json) {
+    GithubUser(Github gh, String userName, long id, String displayName, String location, String avatarUrl, String bio,
+            int reposSize, int gistsSize) {
         this.gh = gh;
         
-        this.userName = json.getString("login");
+        this.userName = userName;
         
-        this.id = json.getLong("id");
-        this.displayName = json.getString("name");
-        this.location = json.getString("location");
-        this.avatarUrl = json.getString("avatar_url");
-        this.bio = json.getString("bio");
-        this.reposSize = json.getInt("public_repos");
-        this.gistsSize = json.getInt("public_gists");
+        this.id = id;
+        this.displayName = displayName;
+        this.location = location;
+        this.avatarUrl = avatarUrl;
+        this.bio = bio;
+        this.reposSize = reposSize;
+        this.gistsSize = gistsSize;
     }
     
     /**
@@ -60,6 +67,15 @@ public class GithubUser {
         return gh.repositories(userName);
     }
     
+    /**
+     * Lazily streams all public repositories of the user, fetching one page at a time.
+     *
+     * @return a stream of the user's repositories
+     */
+    public Stream<GithubRepository> streamRepositories() {
+        return gh.streamRepositories(userName);
+    }
+    
     /**
      * Returns the name of the user.
      *
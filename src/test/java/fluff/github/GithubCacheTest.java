@@ -0,0 +1,81 @@
+package fluff.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fluff.http.path.URLPath;
+
+/**
+ * Reads a directory listing whose cached result is handed to every later caller.
+ */
+class GithubCacheTest {
+
+    private static final String CONTENTS = "/api/repos/octocat/hello/contents/src";
+    private static final String ETAG = "\"v1\"";
+    private static final String LISTING = """
+            [{"path":"src/A.java","name":"A.java","type":"file","sha":"b1","size":5},
+             {"path":"src/B.java","name":"B.java","type":"file","sha":"b2","size":7}]""";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private HttpServer server;
+    private Github gh;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext(CONTENTS, this::contents);
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        gh = new Github(GithubHttpClientTransport.getDefault(), null, null, URLPath.of(base + "api/"), URLPath.of(base + "raw/"));
+        gh.setCache(new GithubLRUCache(16));
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void cachedListingCannotBeChangedByACaller() {
+        List<GithubFile> first = gh.files("octocat", "hello", null, "src");
+        assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+
+        List<GithubFile> revalidated = gh.files("octocat", "hello", null, "src");
+        assertEquals(List.of("A.java", "B.java"), revalidated.stream().map(GithubFile::getFileName).toList());
+        assertEquals(2, requests.get());
+    }
+
+    private void contents(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getResponseHeaders().add("ETag", ETAG);
+
+        boolean notModified = ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        byte[] bytes = notModified ? new byte[0] : LISTING.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(notModified ? 304 : 200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package fluff.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fluff.http.path.URLPath;
+
+/**
+ * Reads the same directory listing from two callers at once, which share a single request and its result.
+ */
+class GithubCoalescerTest {
+
+    private static final String CONTENTS = "/api/repos/octocat/hello/contents/src";
+    private static final String LISTING = """
+            [{"path":"src/A.java","name":"A.java","type":"file","sha":"b1","size":5}]""";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private HttpServer server;
+    private Github gh;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext(CONTENTS, this::contents);
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        gh = new Github(GithubHttpClientTransport.getDefault(), null, null, URLPath.of(base + "api/"), URLPath.of(base + "raw/"));
+        gh.setCoalescer(new GithubCoalescer());
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sharedListingCannotBeChangedByACaller() throws Exception {
+        CompletableFuture<List<GithubFile>> first = CompletableFuture.supplyAsync(() -> gh.files("octocat", "hello", null, "src"), executor);
+        while (requests.get() == 0) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<List<GithubFile>> second = CompletableFuture.supplyAsync(() -> gh.files("octocat", "hello", null, "src"), executor);
+        while (gh.getCoalescer().getShared() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        List<GithubFile> a = first.get(10, TimeUnit.SECONDS);
+        List<GithubFile> b = second.get(10, TimeUnit.SECONDS);
+        assertSame(a, b);
+        assertThrows(UnsupportedOperationException.class, () -> a.remove(0));
+        assertEquals(1, b.size());
+        assertEquals(1, requests.get());
+    }
+
+    private void contents(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] bytes = LISTING.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
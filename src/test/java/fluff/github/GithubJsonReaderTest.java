@@ -0,0 +1,54 @@
+package fluff.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reads numbers and booleans, rejecting values that are not exactly one of them.
+ */
+class GithubJsonReaderTest {
+
+    @Test
+    void readsNumbersAndBooleans() throws IOException {
+        try (GithubJsonReader reader = reader("[42, -7, 9223372036854775807, -9223372036854775808, null, true, false, null]")) {
+            assertEquals(42, reader.nextInt());
+            assertEquals(-7, reader.nextLong());
+            assertEquals(Long.MAX_VALUE, reader.nextLong());
+            assertEquals(Long.MIN_VALUE, reader.nextLong());
+            assertEquals(0, reader.nextLong());
+            assertTrue(reader.nextBoolean());
+            assertFalse(reader.nextBoolean());
+            assertFalse(reader.nextBoolean());
+            reader.endArray();
+        }
+    }
+
+    @Test
+    void rejectsMalformedNumbers() {
+        for (String value : new String[] { "\"1\"", "true", "-", "1.5", "1e3", "12ab", "nul", "9223372036854775808" }) {
+            assertThrows(IOException.class, () -> reader("[" + value + "]").nextLong(), value);
+        }
+        assertThrows(IOException.class, () -> reader("[2147483648]").nextInt());
+    }
+
+    @Test
+    void rejectsMalformedBooleans() {
+        for (String value : new String[] { "1", "\"true\"", "trueish", "fals", "yes" }) {
+            assertThrows(IOException.class, () -> reader("[" + value + "]").nextBoolean(), value);
+        }
+    }
+
+    private static GithubJsonReader reader(String json) throws IOException {
+        GithubJsonReader reader = new GithubJsonReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        reader.beginArray();
+        return reader;
+    }
+}
@@ -0,0 +1,139 @@
+package fluff.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fluff.http.path.URLPath;
+
+/**
+ * Compares two commits with more changed files than GitHub lists, so their trees are compared level by level.
+ */
+class GithubTreeDiffTest {
+
+    private static final String COMPARE = "/api/repos/octocat/hello/compare/";
+    private static final String TREES = "/api/repos/octocat/hello/git/trees/";
+
+    private static final Map<String, String> TREE_RESPONSES = Map.of(
+            "base", """
+                    {"sha":"base","truncated":false,"tree":[
+                      {"path":"README.md","mode":"100644","type":"blob","sha":"r1","size":5},
+                      {"path":"lib","mode":"040000","type":"tree","sha":"t-lib"},
+                      {"path":"old","mode":"040000","type":"tree","sha":"t-old"},
+                      {"path":"src","mode":"040000","type":"tree","sha":"t-src1"}]}""",
+            "head", """
+                    {"sha":"head","truncated":false,"tree":[
+                      {"path":"README.md","mode":"100644","type":"blob","sha":"r2","size":6},
+                      {"path":"lib","mode":"040000","type":"tree","sha":"t-lib"},
+                      {"path":"new","mode":"040000","type":"tree","sha":"t-new"},
+                      {"path":"src","mode":"040000","type":"tree","sha":"t-src2"}]}""",
+            "t-src1", """
+                    {"sha":"t-src1","truncated":false,"tree":[
+                      {"path":"Main.java","mode":"100644","type":"blob","sha":"m1","size":7},
+                      {"path":"Gone.java","mode":"100644","type":"blob","sha":"g1","size":7}]}""",
+            "t-src2", """
+                    {"sha":"t-src2","truncated":false,"tree":[
+                      {"path":"Main.java","mode":"100644","type":"blob","sha":"m2","size":8},
+                      {"path":"Util.java","mode":"100644","type":"blob","sha":"u1","size":7}]}""",
+            "t-old?recursive=1", """
+                    {"sha":"t-old","truncated":false,"tree":[
+                      {"path":"a.txt","mode":"100644","type":"blob","sha":"a1","size":1}]}""",
+            "t-new?recursive=1", """
+                    {"sha":"t-new","truncated":false,"tree":[
+                      {"path":"b.txt","mode":"100644","type":"blob","sha":"b1","size":1}]}""");
+
+    private static final List<String> CHANGES = List.of(
+            "MODIFIED README.md", "ADDED new/b.txt", "REMOVED old/a.txt",
+            "MODIFIED src/Main.java", "ADDED src/Util.java", "REMOVED src/Gone.java");
+
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private HttpServer server;
+    private Github gh;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext(COMPARE, this::compare);
+        server.createContext(TREES, this::tree);
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        gh = new Github(GithubHttpClientTransport.getDefault(), null, null, URLPath.of(base + "api/"), URLPath.of(base + "raw/"));
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void streamsChangesWithoutListingUnchangedSubtrees() {
+        List<String> changes = gh.streamChanges("octocat", "hello", "base", "head")
+                .map(change -> change.getStatus() + " " + change.getPath())
+                .toList();
+
+        assertEquals(CHANGES, changes);
+        assertFalse(requested.stream().anyMatch(treeish -> treeish.startsWith("t-lib")));
+    }
+
+    @Test
+    void failedSubtreeFailsTheWholeComparison() {
+        failing.add("t-src2");
+
+        assertNull(gh.changes("octocat", "hello", "base", "head"));
+    }
+
+    private void compare(HttpExchange exchange) throws IOException {
+        String files = IntStream.range(0, 300)
+                .mapToObj(i -> "{\"filename\":\"file" + i + "\",\"status\":\"modified\",\"sha\":\"f" + i + "\"}")
+                .collect(Collectors.joining(",", "{\"files\":[", "]}"));
+        respond(exchange, 200, files);
+    }
+
+    private void tree(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String treeish = exchange.getRequestURI().getPath().substring(TREES.length());
+        requested.add(treeish);
+
+        if (failing.contains(treeish)) {
+            respond(exchange, 502, null);
+            return;
+        }
+        String body = TREE_RESPONSES.get(query == null ? treeish : treeish + "?" + query);
+        respond(exchange, body == null ? 404 : 200, body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package fluff.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fluff.http.path.URLPath;
+
+/**
+ * Lists a tree whose recursive listing GitHub truncated, so each subtree is listed on its own.
+ */
+class GithubTreeTest {
+
+    private static final String TREES = "/api/repos/octocat/hello/git/trees/";
+
+    private static final Map<String, String> TREE_RESPONSES = Map.of(
+            "main?recursive=1", """
+                    {"sha":"root","truncated":true,"tree":[]}""",
+            "root", """
+                    {"sha":"root","truncated":false,"tree":[
+                      {"path":"README.md","mode":"100644","type":"blob","sha":"b1","size":5},
+                      {"path":"src","mode":"040000","type":"tree","sha":"t-src"},
+                      {"path":"docs","mode":"040000","type":"tree","sha":"t-docs"}]}""",
+            "t-src?recursive=1", """
+                    {"sha":"t-src","truncated":false,"tree":[
+                      {"path":"Main.java","mode":"100644","type":"blob","sha":"b2","size":7}]}""",
+            "t-docs?recursive=1", """
+                    {"sha":"t-docs","truncated":false,"tree":[
+                      {"path":"index.md","mode":"100644","type":"blob","sha":"b3","size":9}]}""");
+
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private HttpServer server;
+    private Github gh;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext(TREES, this::tree);
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        gh = new Github(GithubHttpClientTransport.getDefault(), null, null, URLPath.of(base + "api/"), URLPath.of(base + "raw/"));
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void listsTruncatedTreeOneSubtreeAtATime() {
+        List<GithubTreeEntry> tree = gh.tree("octocat", "hello", "main", null);
+
+        assertEquals(List.of("README.md", "src", "src/Main.java", "docs", "docs/index.md"),
+                tree.stream().map(GithubTreeEntry::getPath).toList());
+    }
+
+    @Test
+    void failedSubtreeFailsTheWholeListing() {
+        failing.add("t-docs");
+
+        assertNull(gh.tree("octocat", "hello", "main", null));
+    }
+
+    private void tree(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String treeish = exchange.getRequestURI().getPath().substring(TREES.length());
+        String body = failing.contains(treeish) ? null : TREE_RESPONSES.get(query == null ? treeish : treeish + "?" + query);
+
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(body == null ? (failing.contains(treeish) ? 502 : 404) : 200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}